@@ -0,0 +1,54 @@
+package run.halo.links;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import run.halo.links.finders.impl.BenchmarkData;
+
+/**
+ * Benchmarks for {@link PatchUtils} on documents from 1 KB to 5 MB.
+ *
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PatchUtilsBenchmark {
+
+    @Param({"1024", "102400", "1048576", "5242880"})
+    int documentBytes;
+
+    String original;
+
+    String revised;
+
+    String patchJson;
+
+    @Setup
+    public void setup() {
+        original = BenchmarkData.document(documentBytes, 0);
+        revised = BenchmarkData.document(documentBytes, 1);
+        patchJson = PatchUtils.diffToJsonPatch(original, revised);
+    }
+
+    @Benchmark
+    public String applyPatch() {
+        return PatchUtils.applyPatch(original, patchJson);
+    }
+
+    @Benchmark
+    public String applyPatchCached() {
+        return PatchUtils.applyPatch("base", original, "release", patchJson);
+    }
+
+    @Benchmark
+    public String diffToJsonPatch() {
+        return PatchUtils.diffToJsonPatch(original, revised);
+    }
+}
@@ -0,0 +1,184 @@
+package run.halo.links.finders.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import run.halo.app.core.extension.Counter;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.core.extension.content.Snapshot;
+import run.halo.app.extension.Metadata;
+import run.halo.app.metrics.MeterUtils;
+import run.halo.links.PatchUtils;
+
+/**
+ * Synthetic extensions for benchmarks, generated from a fixed seed so runs are comparable.
+ *
+ * @since 2.0.0
+ */
+public final class BenchmarkData {
+    private static final Instant EPOCH = Instant.parse("2023-01-01T00:00:00Z");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates a category forest with roughly ten roots where each category hangs below a
+     * random earlier one, which gives a depth that grows logarithmically with the count.
+     */
+    public static List<Category> categories(int count) {
+        Random random = new Random(42);
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Category category = new Category();
+            category.setMetadata(metadata(categoryName(i), i));
+            Category.CategorySpec spec = new Category.CategorySpec();
+            spec.setDisplayName("Category " + i);
+            spec.setSlug("category-" + i);
+            spec.setPriority(random.nextInt(5));
+            spec.setChildren(new ArrayList<>());
+            category.setSpec(spec);
+            categories.add(category);
+            if (i >= 10) {
+                Category parent = categories.get(random.nextInt(i));
+                parent.getSpec().getChildren().add(categoryName(i));
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Generates published public posts, each in one to three random categories.
+     */
+    public static List<Post> posts(int count, int categoryCount) {
+        Random random = new Random(7);
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            Metadata metadata = metadata(postName(i), i);
+            Map<String, String> labels = new HashMap<>();
+            labels.put(Post.PUBLISHED_LABEL, "true");
+            metadata.setLabels(labels);
+            Map<String, String> annotations = new HashMap<>();
+            annotations.put("links.halo.run/cover-" + (i % 3), "cover-" + i);
+            annotations.put("links.halo.run/source", "benchmark");
+            metadata.setAnnotations(annotations);
+            post.setMetadata(metadata);
+
+            Post.PostSpec spec = new Post.PostSpec();
+            spec.setTitle("Post " + i);
+            spec.setSlug("post-" + i);
+            spec.setPublish(true);
+            spec.setPinned(i % 100 == 0);
+            spec.setPriority(0);
+            spec.setDeleted(false);
+            spec.setVisible(Post.VisibleEnum.PUBLIC);
+            spec.setPublishTime(EPOCH.plusSeconds(random.nextInt(365 * 24 * 3600)));
+            List<String> categories = new ArrayList<>();
+            int categoriesOfPost = 1 + random.nextInt(3);
+            for (int j = 0; j < categoriesOfPost; j++) {
+                categories.add(categoryName(random.nextInt(categoryCount)));
+            }
+            spec.setCategories(categories);
+            spec.setBaseSnapshot(baseSnapshotName(i));
+            spec.setReleaseSnapshot(releaseSnapshotName(i));
+            spec.setHeadSnapshot(releaseSnapshotName(i));
+            post.setSpec(spec);
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    public static List<Counter> counters(List<Post> posts) {
+        Random random = new Random(11);
+        List<Counter> counters = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            Counter counter = new Counter();
+            counter.setMetadata(
+                metadata(MeterUtils.nameOf(Post.class, post.getMetadata().getName()), 0));
+            counter.setVisit(random.nextInt(10_000));
+            counter.setUpvote(random.nextInt(100));
+            counter.setTotalComment(random.nextInt(50));
+            counter.setApprovedComment(random.nextInt(50));
+            counters.add(counter);
+        }
+        return counters;
+    }
+
+    /**
+     * Generates a base and a release snapshot per post, where the release changes every tenth
+     * line of a document of about the given size.
+     */
+    public static List<Snapshot> snapshots(List<Post> posts, int documentBytes) {
+        String original = document(documentBytes, 0);
+        String revised = document(documentBytes, 1);
+        String contentPatch = PatchUtils.diffToJsonPatch(original, revised);
+        List<Snapshot> snapshots = new ArrayList<>(posts.size() * 2);
+        for (int i = 0; i < posts.size(); i++) {
+            Snapshot base = snapshot(baseSnapshotName(i), original, original);
+            base.getMetadata().setAnnotations(Map.of(Snapshot.KEEP_RAW_ANNO, "true"));
+            snapshots.add(base);
+            snapshots.add(snapshot(releaseSnapshotName(i), contentPatch, contentPatch));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Generates a markdown-like document of about the given size. Documents generated with a
+     * different revision differ on every tenth line.
+     */
+    public static String document(int bytes, int revision) {
+        StringBuilder document = new StringBuilder(bytes + 128);
+        int line = 0;
+        while (document.length() < bytes) {
+            if (line % 10 == 0 && revision > 0) {
+                document.append("Revised line ").append(line).append(" of revision ")
+                    .append(revision);
+            } else {
+                document.append("Line ").append(line)
+                    .append(" lorem ipsum dolor sit amet, consectetur adipiscing elit.");
+            }
+            document.append('\n');
+            line++;
+        }
+        return document.toString();
+    }
+
+    public static String categoryName(int index) {
+        return "category-" + index;
+    }
+
+    public static String postName(int index) {
+        return "post-" + index;
+    }
+
+    static String baseSnapshotName(int index) {
+        return "snapshot-base-" + index;
+    }
+
+    static String releaseSnapshotName(int index) {
+        return "snapshot-release-" + index;
+    }
+
+    private static Snapshot snapshot(String name, String rawPatch, String contentPatch) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setMetadata(metadata(name, 0));
+        Snapshot.SnapShotSpec spec = new Snapshot.SnapShotSpec();
+        spec.setRawType("markdown");
+        spec.setRawPatch(rawPatch);
+        spec.setContentPatch(contentPatch);
+        snapshot.setSpec(spec);
+        return snapshot;
+    }
+
+    private static Metadata metadata(String name, int index) {
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setVersion(1L);
+        metadata.setCreationTimestamp(EPOCH.plusSeconds(index));
+        return metadata;
+    }
+}
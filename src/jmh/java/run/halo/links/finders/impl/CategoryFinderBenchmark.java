@@ -0,0 +1,138 @@
+package run.halo.links.finders.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import run.halo.app.core.extension.content.Category;
+import run.halo.links.vo.CategoryTreeVo;
+import run.halo.links.vo.CategoryVo;
+
+/**
+ * Benchmarks for building and reading category trees.
+ *
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryFinderBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int categoryCount;
+
+    MyCategoryFinderImpl finder;
+
+    List<Category> categories;
+
+    String deepestCategory;
+
+    @Setup
+    public void setup() {
+        categories = BenchmarkData.categories(categoryCount);
+        InMemoryExtensionClient extensionClient = new InMemoryExtensionClient().seed(categories);
+        CategoryIndex categoryIndex = new CategoryIndex(extensionClient.client());
+        categoryIndex.afterPropertiesSet();
+        PostIndex postIndex = new PostIndex(extensionClient.client());
+        postIndex.afterPropertiesSet();
+        CategoryPostCounts postCounts = new CategoryPostCounts(postIndex);
+        postCounts.afterPropertiesSet();
+        CategoryPrefixIndex prefixIndex = new CategoryPrefixIndex(categoryIndex);
+        prefixIndex.afterPropertiesSet();
+        finder = new MyCategoryFinderImpl(extensionClient.client(), categoryIndex, postCounts,
+            prefixIndex, new FinderMetrics(new SimpleMeterRegistry()));
+
+        // warm the index so the benchmarks measure reads rather than the initial listing
+        categoryIndex.forest().block();
+        postCounts.ready().block();
+        deepestCategory = BenchmarkData.categoryName(categoryCount - 1);
+    }
+
+    @Benchmark
+    public List<CategoryTreeVo> listAsTree() {
+        return finder.listAsTree().collectList().block();
+    }
+
+    @Benchmark
+    public List<CategoryTreeVo> listAsTreeTwoLevels() {
+        return finder.listAsTree(null, 1).collectList().block();
+    }
+
+    @Benchmark
+    public List<CategoryVo> listByPrefix() {
+        return finder.listByPrefix("category-1", 10).collectList().block();
+    }
+
+    @Benchmark
+    public CategoryTreeVo getTreeByNameChild() {
+        return finder.getTreeByNameChild(deepestCategory);
+    }
+
+    @Benchmark
+    public List<CategoryTreeVo> getTreeByNamePart() {
+        return finder.getTreeByNamePart(deepestCategory).block();
+    }
+
+    @Benchmark
+    public CategoryIndex.Forest buildForest() {
+        return CategoryIndex.Forest.build(0, categories);
+    }
+
+    /**
+     * The forest building that sorted the children of each parent with a comparator looking
+     * every name up in a map, kept as the baseline for {@link #buildForest()}.
+     */
+    @Benchmark
+    public Map<String, List<String>> perParentSortBuildForest() {
+        Map<String, CategoryVo> categoryVos = new HashMap<>(categories.size() * 4 / 3 + 1);
+        for (Category category : categories) {
+            categoryVos.put(category.getMetadata().getName(), CategoryVo.from(category));
+        }
+        Map<String, String> parents = new HashMap<>(categoryVos.size() * 4 / 3 + 1);
+        categoryVos.forEach((name, category) -> {
+            List<String> childNames = category.getSpec().getChildren();
+            if (childNames == null) {
+                return;
+            }
+            for (String child : childNames) {
+                if (categoryVos.containsKey(child)) {
+                    parents.put(child, name);
+                }
+            }
+        });
+        CategoryIndex.Forest.breakCycles(parents);
+
+        Map<String, List<String>> children = new HashMap<>();
+        parents.forEach((child, parent) ->
+            children.computeIfAbsent(parent, k -> new ArrayList<>()).add(child));
+        Comparator<String> byNode =
+            Comparator.comparing(categoryVos::get, CategoryIndex.defaultTreeNodeComparator());
+        children.replaceAll((parent, names) -> {
+            names.sort(byNode);
+            return Collections.unmodifiableList(names);
+        });
+
+        List<String> roots = new ArrayList<>();
+        for (String name : categoryVos.keySet()) {
+            if (!parents.containsKey(name)) {
+                roots.add(name);
+            }
+        }
+        roots.sort(byNode);
+        // returned with the children so that sorting the roots is not optimized away
+        children.put(null, roots);
+        return children;
+    }
+}
@@ -0,0 +1,141 @@
+package run.halo.links.finders.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Extension;
+import run.halo.app.extension.GroupVersionKind;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.extension.Watcher;
+
+/**
+ * <p>An in-memory {@link ReactiveExtensionClient} for benchmarks.</p>
+ * <p>It is backed by a dynamic proxy so that only the operations the finders use have to be
+ * implemented, other operations throw {@link UnsupportedOperationException}.</p>
+ *
+ * @since 2.0.0
+ */
+public class InMemoryExtensionClient implements InvocationHandler {
+    private final Map<Class<?>, Map<String, Extension>> store = new ConcurrentHashMap<>();
+
+    private final List<Watcher> watchers = new CopyOnWriteArrayList<>();
+
+    private final ReactiveExtensionClient client;
+
+    public InMemoryExtensionClient() {
+        this.client = (ReactiveExtensionClient) Proxy.newProxyInstance(
+            ReactiveExtensionClient.class.getClassLoader(),
+            new Class<?>[] {ReactiveExtensionClient.class}, this);
+    }
+
+    public ReactiveExtensionClient client() {
+        return client;
+    }
+
+    /**
+     * Seeds extensions without notifying watchers.
+     */
+    public InMemoryExtensionClient seed(Iterable<? extends Extension> extensions) {
+        extensions.forEach(extension -> bucket(extension.getClass())
+            .put(extension.getMetadata().getName(), extension));
+        return this;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "list" -> args.length == 3
+                ? Flux.fromStream(stream(args))
+                : Mono.just(page(args));
+            case "fetch" -> fetch(args);
+            case "get" -> Mono.justOrEmpty(fetchOrNull(args))
+                .switchIfEmpty(Mono.error(() -> new MyExtensionNotFoundException(
+                    GroupVersionKind.fromExtension(asType(args[0])), (String) args[1])));
+            case "create", "update" -> Mono.fromSupplier(() -> save((Extension) args[0]));
+            case "delete" -> Mono.fromSupplier(() -> remove((Extension) args[0]));
+            case "watch" -> {
+                watchers.add((Watcher) args[0]);
+                yield null;
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryExtensionClient";
+            default -> throw new UnsupportedOperationException(method.toString());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<Extension> stream(Object[] args) {
+        Predicate<Extension> predicate = (Predicate<Extension>) args[1];
+        Comparator<Extension> comparator = (Comparator<Extension>) args[2];
+        Stream<Extension> stream = bucket(asType(args[0])).values().stream();
+        if (predicate != null) {
+            stream = stream.filter(predicate);
+        }
+        if (comparator != null) {
+            stream = stream.sorted(comparator);
+        }
+        return stream;
+    }
+
+    private ListResult<Extension> page(Object[] args) {
+        List<Extension> all = stream(args).toList();
+        int page = Math.max((int) args[3], 1);
+        int size = (int) args[4];
+        if (size < 1) {
+            return new ListResult<>(page, size, all.size(), all);
+        }
+        int from = Math.min((page - 1) * size, all.size());
+        int to = Math.min(from + size, all.size());
+        return new ListResult<>(page, size, all.size(), all.subList(from, to));
+    }
+
+    private Mono<Extension> fetch(Object[] args) {
+        if (!(args[0] instanceof Class<?>)) {
+            return Mono.error(new UnsupportedOperationException("fetch by GroupVersionKind"));
+        }
+        return Mono.justOrEmpty(fetchOrNull(args));
+    }
+
+    private Extension fetchOrNull(Object[] args) {
+        return bucket(asType(args[0])).get((String) args[1]);
+    }
+
+    private Extension save(Extension extension) {
+        Extension old = bucket(extension.getClass())
+            .put(extension.getMetadata().getName(), extension);
+        for (Watcher watcher : watchers) {
+            if (old == null) {
+                watcher.onAdd(extension);
+            } else {
+                watcher.onUpdate(old, extension);
+            }
+        }
+        return extension;
+    }
+
+    private Extension remove(Extension extension) {
+        bucket(extension.getClass()).remove(extension.getMetadata().getName());
+        watchers.forEach(watcher -> watcher.onDelete(extension));
+        return extension;
+    }
+
+    private Map<String, Extension> bucket(Class<?> type) {
+        return store.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Extension> asType(Object type) {
+        return (Class<? extends Extension>) type;
+    }
+}
@@ -0,0 +1,96 @@
+package run.halo.links.finders.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.ListResult;
+import run.halo.links.vo.MyListedPostVo;
+import run.halo.links.vo.MyPostVo;
+
+/**
+ * Benchmarks for post listings and post detail rendering.
+ *
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostFinderBenchmark {
+
+    @Param({"1000", "10000"})
+    int categoryCount;
+
+    @Param({"10000", "100000"})
+    int postCount;
+
+    /**
+     * Budget of the rendered content cache, 0 renders every post detail from snapshots.
+     */
+    @Param({"0", "67108864"})
+    long contentCacheBytes;
+
+    PostFinderImpl finder;
+
+    String rootCategory;
+
+    String leafCategory;
+
+    String postName;
+
+    @Setup
+    public void setup() {
+        List<Category> categories = BenchmarkData.categories(categoryCount);
+        List<Post> posts = BenchmarkData.posts(postCount, categoryCount);
+        InMemoryExtensionClient extensionClient = new InMemoryExtensionClient()
+            .seed(categories)
+            .seed(posts)
+            .seed(BenchmarkData.counters(posts))
+            .seed(BenchmarkData.snapshots(posts.subList(0, 1), 64 * 1024));
+
+        CategoryIndex categoryIndex = new CategoryIndex(extensionClient.client());
+        categoryIndex.afterPropertiesSet();
+        PostIndex postIndex = new PostIndex(extensionClient.client());
+        postIndex.afterPropertiesSet();
+        FinderMetrics metrics = new FinderMetrics(new SimpleMeterRegistry());
+        finder = new PostFinderImpl(extensionClient.client(), categoryIndex,
+            postIndex, new PostStatsLoader(extensionClient.client()),
+            new ContentMaterializer(extensionClient.client(),
+                new ContentCache(extensionClient.client(), contentCacheBytes)), metrics);
+
+        rootCategory = BenchmarkData.categoryName(0);
+        leafCategory = BenchmarkData.categoryName(categoryCount - 1);
+        postName = BenchmarkData.postName(0);
+        categoryIndex.forest().block();
+        postIndex.ready().block();
+    }
+
+    @Benchmark
+    public ListResult<MyListedPostVo> listFirstPage() {
+        return finder.list(1, 10).block();
+    }
+
+    @Benchmark
+    public ListResult<MyListedPostVo> listByRootCategoryAndChildren() {
+        return finder.listByCategoryAndChildren(1, 10, rootCategory).block();
+    }
+
+    @Benchmark
+    public ListResult<MyListedPostVo> listByLeafCategoryAndChildren() {
+        return finder.listByCategoryAndChildren(1, 10, leafCategory).block();
+    }
+
+    @Benchmark
+    public MyPostVo getByName() {
+        return finder.getByName(postName).block();
+    }
+}
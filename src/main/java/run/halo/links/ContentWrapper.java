@@ -29,10 +29,12 @@ public class ContentWrapper {
                 .rawType(patchSnapshot.getSpec().getRawType())
                 .build();
         }
-        String patchedContent = PatchUtils.applyPatch(baseSnapshot.getSpec().getContentPatch(),
-            patchSnapshot.getSpec().getContentPatch());
-        String patchedRaw = PatchUtils.applyPatch(baseSnapshot.getSpec().getRawPatch(),
-            patchSnapshot.getSpec().getRawPatch());
+        String patchedContent = PatchUtils.applyPatch(
+            cacheKey(baseSnapshot, "content"), baseSnapshot.getSpec().getContentPatch(),
+            cacheKey(patchSnapshot, "content"), patchSnapshot.getSpec().getContentPatch());
+        String patchedRaw = PatchUtils.applyPatch(
+            cacheKey(baseSnapshot, "raw"), baseSnapshot.getSpec().getRawPatch(),
+            cacheKey(patchSnapshot, "raw"), patchSnapshot.getSpec().getRawPatch());
         return ContentWrapper.builder()
             .snapshotName(patchSnapshot.getMetadata().getName())
             .raw(patchedRaw)
@@ -40,4 +42,12 @@ public class ContentWrapper {
             .rawType(patchSnapshot.getSpec().getRawType())
             .build();
     }
+
+    /**
+     * Builds a patch cache key that changes whenever the snapshot is updated in place.
+     */
+    private static String cacheKey(Snapshot snapshot, String part) {
+        return snapshot.getMetadata().getName() + "@" + snapshot.getMetadata().getVersion()
+            + "#" + part;
+    }
 }
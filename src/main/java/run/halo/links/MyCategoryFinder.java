@@ -7,8 +7,11 @@ import reactor.core.publisher.Mono;
 import run.halo.app.core.extension.content.Category;
 import run.halo.app.extension.ListResult;
 
+import run.halo.links.vo.CategoryTreeNode;
+import run.halo.links.vo.CategoryTreeSnapshot;
 import run.halo.links.vo.CategoryTreeVo;
 import run.halo.links.vo.CategoryVo;
+import run.halo.links.vo.MyCursorListResult;
 
 /**
  * A finder for {@link Category}.
@@ -24,16 +27,111 @@ public interface MyCategoryFinder {
 
     Mono<ListResult<CategoryVo>> list(@Nullable Integer page, @Nullable Integer size);
 
+    /**
+     * Lists categories page by page, seeking from the cursor of the previous page instead of
+     * counting and skipping all preceding categories.
+     *
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size page size
+     * @return a page of categories with the cursor of the next page
+     */
+    Mono<MyCursorListResult<CategoryVo>> listByCursor(@Nullable String cursor,
+        @Nullable Integer size);
+
     Flux<CategoryVo> listAll();
 
+    /**
+     * Finds categories for typeahead by the start of their display name or slug, ignoring
+     * case.
+     *
+     * @param prefix the typed prefix
+     * @param size maximum number of categories to return, 10 if null
+     * @return the matching categories with the highest priority first
+     */
+    Flux<CategoryVo> listByPrefix(String prefix, @Nullable Integer size);
+
     Flux<CategoryTreeVo> listAsTree();
 
     Flux<CategoryTreeVo> listAsTree(String name);
 
+    /**
+     * Lists the top levels of the category tree, e.g. for navigation over a large taxonomy.
+     * <p>
+     * Nodes on the last level have no children but keep their child count, so deeper levels
+     * can be fetched on demand by {@link #listChildren(String, Integer)}.
+     *
+     * @param name category name to list the subtree of, or null for all root categories
+     * @param maxDepth number of levels to include below each root, or null for all levels
+     * @return the depth-limited trees
+     */
+    Flux<CategoryTreeVo> listAsTree(@Nullable String name, @Nullable Integer maxDepth);
+
+    /**
+     * Lists the direct children of a category, each with the given number of levels below
+     * it, to expand a depth-limited tree lazily.
+     *
+     * @param name category name
+     * @param maxDepth number of levels to include below each child, or null for all levels
+     * @return the child trees in tree order, or empty if the category has no children
+     */
+    Flux<CategoryTreeVo> listChildren(String name, @Nullable Integer maxDepth);
+
     Flux<CategoryTreeVo> getTreeByName(String name);
 
+    /**
+     * Gets the path from the top parent category down to the given category.
+     *
+     * @param name category name
+     * @return tree nodes ordered from the top parent to the category itself
+     */
     Mono<List<CategoryTreeVo>> getTreeByNamePart(String name);
 
+    /**
+     * Gets the subtree rooted at the given category without blocking.
+     *
+     * @param name category name
+     * @return the category tree node with its descendants, or empty if not found
+     */
+    Mono<CategoryTreeVo> getSubTreeByName(String name);
+
+    /**
+     * Gets the immutable category tree shared by all renders until a category changes.
+     *
+     * @return the current tree snapshot
+     */
+    Mono<CategoryTreeSnapshot> getTreeSnapshot();
+
+    /**
+     * Gets a node of the current immutable category tree, without copying its subtree.
+     *
+     * @param name category name
+     * @return the shared tree node, or empty if not found
+     */
+    Mono<CategoryTreeNode> getTreeNode(String name);
+
+    /**
+     * Renders the category hierarchy as a text tree, e.g. for sidebars and admin views.
+     * <p>
+     * The text is cached per version of the category tree, so it is only rendered again
+     * after a category changed.
+     *
+     * @param name category name to render the subtree of, or null for all categories
+     * @param maxDepth number of levels to render below each root, or null for all levels
+     * @return the rendered tree, one category per line
+     */
+    Mono<String> renderTree(@Nullable String name, @Nullable Integer maxDepth);
+
+    /**
+     * Gets the subtree rooted at the given category for synchronous template calls.
+     * <p>
+     * The category index and post counts are loaded at startup. If a call comes before that
+     * load has finished, it waits for it, except on a non-blocking thread, where it returns
+     * null until the categories are loaded and leaves the total post counts unset until the
+     * posts are counted.
+     *
+     * @param name category name
+     * @return the category tree node with its descendants, or null if not found or not loaded
+     */
     CategoryTreeVo getTreeByNameChild(String name);
 
     void traverse(CategoryTreeVo node, List<String> result) ;
@@ -5,7 +5,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import run.halo.app.core.extension.content.Post;
 import run.halo.app.extension.ListResult;
+import run.halo.links.vo.MyCursorListResult;
 import run.halo.links.vo.MyListedPostVo;
+import run.halo.links.vo.MyNavigationPostVo;
 import run.halo.links.vo.MyPostVo;
 import java.util.List;
 import java.util.Map;
@@ -28,12 +30,92 @@ public interface MyPostFinder {
      */
     Mono<MyPostVo> getByName(String postName);
 
+    /**
+     * Gets a post together with the posts before and after it in list order.
+     *
+     * @param postName post name
+     * @return navigation whose previous and next posts come without content
+     */
+    Mono<MyNavigationPostVo> cursor(String postName);
+
+    /**
+     * Gets a post together with the posts before and after it among the posts of a category
+     * and its descendants.
+     *
+     * @param postName post name
+     * @param categoryName category name to scope the navigation to, or null for all posts
+     * @return navigation whose previous and next posts come without content
+     */
+    Mono<MyNavigationPostVo> cursor(String postName, @Nullable String categoryName);
+
 
     Flux<MyListedPostVo> listAll();
 
+    /**
+     * Lists all published, public and non-deleted posts with the given projection.
+     *
+     * @param projection {@link PostProjection} name, e.g. slim, or null for the full posts
+     * @return posts in list order
+     */
+    Flux<MyListedPostVo> listAll(@Nullable String projection);
+
+    /**
+     * Lists published, public and non-deleted posts, e.g. for the home page.
+     *
+     * @param page page number, starting from 1
+     * @param size page size
+     * @return a page of posts
+     */
+    Mono<ListResult<MyListedPostVo>> list(@Nullable Integer page, @Nullable Integer size);
+
 
+    /**
+     * Gets the annotations of a post whose keys match the given pattern for synchronous
+     * template calls.
+     * <p>
+     * Visible posts are served from the post index. Other posts are fetched, which blocks, so
+     * on a non-blocking thread they get an empty map instead.
+     *
+     * @param name post name
+     * @param patternString regular expression that annotation keys are searched for
+     * @return matching annotations, or an empty map if the post does not exist
+     */
     Map<String,String> getAnnotationsByArticle(String name, String patternString);
 
+    /**
+     * Gets the annotations of a post whose keys match the given pattern, without loading the
+     * post content.
+     *
+     * @param name post name
+     * @param patternString regular expression that annotation keys are searched for
+     * @return matching annotations, or an empty map if the post does not exist
+     */
+    Mono<Map<String, String>> listAnnotationsByArticle(String name, String patternString);
+
     Mono<ListResult<MyListedPostVo>> listByCategoryAndChildren(@Nullable Integer page, @Nullable Integer size,
         String categoryName);
+
+    /**
+     * Lists posts of a category and its descendants with the given projection.
+     *
+     * @param page page number, starting from 1
+     * @param size page size
+     * @param categoryName category name
+     * @param projection {@link PostProjection} name, e.g. slim, or null for the full posts
+     * @return a page of posts
+     */
+    Mono<ListResult<MyListedPostVo>> listByCategoryAndChildren(@Nullable Integer page,
+        @Nullable Integer size, String categoryName, @Nullable String projection);
+
+    /**
+     * Lists posts of a category and its descendants page by page, seeking from the cursor of
+     * the previous page instead of counting and skipping all preceding posts.
+     *
+     * @param cursor cursor of the previous page, or null for the first page
+     * @param size page size
+     * @param categoryName category name
+     * @return a page of posts with the cursor of the next page
+     */
+    Mono<MyCursorListResult<MyListedPostVo>> listByCategoryAndChildrenByCursor(
+        @Nullable String cursor, @Nullable Integer size, String categoryName);
 }
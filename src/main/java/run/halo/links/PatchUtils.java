@@ -18,6 +18,21 @@ public class PatchUtils {
     private static final String DELIMITER = "\n";
     private static final Splitter lineSplitter = Splitter.on(DELIMITER);
 
+    /**
+     * Split lines of base documents keyed by snapshot, shared by every release snapshot that
+     * patches the same base.
+     */
+    private static final WeightedLruCache<String, TextLines> baseLinesCache =
+        new WeightedLruCache<>(32L * 1024 * 1024, TextLines::weight);
+
+    /**
+     * Deltas of parsed patches keyed by snapshot, sorted once when parsed. A {@link Patch} is
+     * not cached itself, because {@link Patch#getDeltas()} sorts its deltas in place on every
+     * call and is therefore not safe to share between threads.
+     */
+    private static final WeightedLruCache<String, CachedPatch> patchCache =
+        new WeightedLruCache<>(16L * 1024 * 1024, CachedPatch::weight);
+
     public static Patch<String> create(String deltasJson) {
         List<Delta> deltas = JsonUtils.jsonToObject(deltasJson, new TypeReference<>() {
         });
@@ -45,12 +60,139 @@ public class PatchUtils {
     }
 
     public static String applyPatch(String original, String patchJson) {
-        Patch<String> patch = PatchUtils.create(patchJson);
-        try {
-            return String.join(DELIMITER, patch.applyTo(breakLine(original)));
-        } catch (PatchFailedException e) {
-            throw new RuntimeException(e);
+        return applyPatch(TextLines.of(original), sortedDeltas(create(patchJson)));
+    }
+
+    /**
+     * Applies a patch like {@link #applyPatch(String, String)}, reusing the split base lines
+     * and the parsed patch cached under the given keys.
+     *
+     * @param originalKey cache key of the original document, or null to not cache it
+     * @param original original document
+     * @param patchKey cache key of the patch, or null to not cache it
+     * @param patchJson deltas json
+     * @return patched document
+     */
+    public static String applyPatch(String originalKey, String original, String patchKey,
+        String patchJson) {
+        TextLines lines = originalKey == null ? TextLines.of(original)
+            : baseLinesCache.get(originalKey, key -> TextLines.of(original));
+        List<AbstractDelta<String>> deltas = patchKey == null ? sortedDeltas(create(patchJson))
+            : patchCache.get(patchKey, key -> new CachedPatch(sortedDeltas(create(patchJson)),
+                patchJson.length())).deltas();
+        return applyPatch(lines, deltas);
+    }
+
+    /**
+     * Gets the deltas of a patch that is not shared yet, in the order they apply.
+     */
+    static List<AbstractDelta<String>> sortedDeltas(Patch<String> patch) {
+        return List.copyOf(patch.getDeltas());
+    }
+
+    /**
+     * Creates a patch owned by the caller from shared deltas.
+     */
+    static Patch<String> toPatch(List<AbstractDelta<String>> deltas) {
+        Patch<String> patch = new Patch<>(deltas.size());
+        for (AbstractDelta<String> delta : deltas) {
+            patch.addDelta(delta);
+        }
+        return patch;
+    }
+
+    /**
+     * <p>Applies the deltas by copying unchanged line ranges of the original text in bulk into
+     * a pre-sized buffer, so no string is created per line.</p>
+     * <p>The result equals joining {@link Patch#applyTo(List)} with line breaks. Deltas that
+     * overlap or do not match the original are applied through {@link Patch#applyTo(List)}
+     * instead, so they fail the same way as before.</p>
+     *
+     * @param deltas deltas sorted by source position as by {@link #sortedDeltas(Patch)}, which
+     * are only read and may be shared
+     */
+    static String applyPatch(TextLines original, List<AbstractDelta<String>> deltas) {
+        if (!canApplyInPlace(original, deltas)) {
+            try {
+                return String.join(DELIMITER, toPatch(deltas).applyTo(original.toList()));
+            } catch (PatchFailedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        CharSequence text = original.text();
+        StringBuilder result = new StringBuilder(estimateLength(text, deltas));
+        boolean first = true;
+        int line = 0;
+        for (AbstractDelta<String> delta : deltas) {
+            Chunk<String> source = delta.getSource();
+            first = appendLines(result, original, line, source.getPosition(), first);
+            for (String revised : delta.getTarget().getLines()) {
+                if (!first) {
+                    result.append(DELIMITER);
+                }
+                result.append(revised);
+                first = false;
+            }
+            line = source.getPosition() + source.size();
+        }
+        appendLines(result, original, line, original.size(), first);
+        return result.toString();
+    }
+
+    private static boolean appendLines(StringBuilder result, TextLines lines, int from, int to,
+        boolean first) {
+        if (from >= to) {
+            return first;
+        }
+        if (!first) {
+            result.append(DELIMITER);
         }
+        // the line breaks between the copied lines come along with the range
+        result.append(lines.text(), lines.start(from), lines.end(to - 1));
+        return false;
+    }
+
+    private static boolean canApplyInPlace(TextLines original,
+        List<AbstractDelta<String>> deltas) {
+        int previousEnd = 0;
+        for (AbstractDelta<String> delta : deltas) {
+            Chunk<String> source = delta.getSource();
+            int position = source.getPosition();
+            if (position < previousEnd || position + source.size() > original.size()) {
+                return false;
+            }
+            List<String> sourceLines = source.getLines();
+            for (int i = 0; i < source.size(); i++) {
+                if (!original.lineEquals(position + i, sourceLines.get(i))) {
+                    return false;
+                }
+            }
+            previousEnd = position + source.size();
+        }
+        return true;
+    }
+
+    private static int estimateLength(CharSequence text, List<AbstractDelta<String>> deltas) {
+        long length = text.length();
+        for (AbstractDelta<String> delta : deltas) {
+            for (String line : delta.getTarget().getLines()) {
+                length += line.length() + 1;
+            }
+        }
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
+    }
+
+    public static void clearCaches() {
+        baseLinesCache.clear();
+        patchCache.clear();
+    }
+
+    public static WeightedLruCache<String, TextLines> baseLinesCache() {
+        return baseLinesCache;
+    }
+
+    public static WeightedLruCache<String, ?> patchCache() {
+        return patchCache;
     }
 
     public static String diffToJsonPatch(String original, String revised) {
@@ -65,6 +207,13 @@ public class PatchUtils {
         return lineSplitter.splitToList(content);
     }
 
+    private record CachedPatch(List<AbstractDelta<String>> deltas, int jsonLength) {
+        long weight() {
+            // parsed chunks take roughly as much memory as the json they came from
+            return 64 + 2L * jsonLength;
+        }
+    }
+
     @Data
     public static class Delta {
         private StringChunk source;
@@ -0,0 +1,45 @@
+package run.halo.links;
+
+import java.util.Locale;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import run.halo.links.vo.MyListedPostVo;
+
+/**
+ * Fields of a {@link MyListedPostVo} that a post list fills in.
+ *
+ * @since 2.0.0
+ */
+public enum PostProjection {
+    /**
+     * The full post spec, status and metadata.
+     */
+    FULL,
+    /**
+     * Only what a listing shows: title, slug, cover, publish time, permalink, excerpt and
+     * stats, see {@link MyListedPostVo#slim(run.halo.app.core.extension.content.Post)}.
+     */
+    SLIM;
+
+    /**
+     * Resolves a projection by name, ignoring case.
+     * <p>
+     * Names come from theme templates, so an unknown name falls back to {@link #FULL} instead
+     * of failing the page render.
+     *
+     * @param name projection name, or blank for {@link #FULL}
+     * @return the projection, or {@link #FULL} if there is none with the given name
+     */
+    public static PostProjection from(@Nullable String name) {
+        if (StringUtils.isBlank(name)) {
+            return FULL;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        for (PostProjection projection : values()) {
+            if (projection.name().equals(normalized)) {
+                return projection;
+            }
+        }
+        return FULL;
+    }
+}
@@ -0,0 +1,112 @@
+package run.halo.links;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * <p>A line view over a {@link CharSequence} that only records where each line starts.</p>
+ * <p>Lines are split on {@code \n} exactly like {@link PatchUtils#breakLine(String)}, including
+ * trailing empty lines, but no {@link String} is created per line.</p>
+ *
+ * @since 2.0.0
+ */
+public final class TextLines {
+    private static final TextLines EMPTY = new TextLines("", new int[0]);
+
+    private final CharSequence text;
+
+    private final int[] starts;
+
+    private TextLines(CharSequence text, int[] starts) {
+        this.text = text;
+        this.starts = starts;
+    }
+
+    /**
+     * Indexes the lines of the given text.
+     *
+     * @param text text to split, blank text has no lines
+     * @return lines of the text
+     */
+    public static TextLines of(CharSequence text) {
+        if (StringUtils.isBlank(text)) {
+            return EMPTY;
+        }
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        int[] starts = new int[count];
+        int line = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                starts[line++] = i + 1;
+            }
+        }
+        return new TextLines(text, starts);
+    }
+
+    public CharSequence text() {
+        return text;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public int start(int line) {
+        return starts[line];
+    }
+
+    /**
+     * Gets the end offset of the line, excluding its line break.
+     */
+    public int end(int line) {
+        return line + 1 < starts.length ? starts[line + 1] - 1 : text.length();
+    }
+
+    /**
+     * Compares a line with the given string without copying it.
+     */
+    public boolean lineEquals(int line, String value) {
+        int start = start(line);
+        int length = end(line) - start;
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        if (text instanceof String string) {
+            return string.regionMatches(start, value, 0, length);
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies all lines into strings, as expected by list based diff utilities.
+     */
+    public List<String> toList() {
+        if (starts.length == 0) {
+            return Collections.emptyList();
+        }
+        List<String> lines = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            lines.add(text.subSequence(start(i), end(i)).toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Estimates the retained size of the offsets and the text in bytes.
+     */
+    public long weight() {
+        return 64 + 4L * starts.length + 2L * text.length();
+    }
+}
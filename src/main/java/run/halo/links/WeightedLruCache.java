@@ -0,0 +1,127 @@
+package run.halo.links;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import org.springframework.lang.Nullable;
+
+/**
+ * A thread-safe cache that evicts entries in least-recently-used order once the total weight
+ * of its values exceeds a budget.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 2.0.0
+ */
+public class WeightedLruCache<K, V> {
+    private final long maxWeight;
+
+    private final ToLongFunction<V> weigher;
+
+    private final BiConsumer<K, V> removalListener;
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long weight;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this(maxWeight, weigher, (key, value) -> {
+        });
+    }
+
+    /**
+     * Creates a cache that reports entries leaving it.
+     *
+     * @param removalListener called under the cache lock for every entry that is evicted or
+     * removed, but not for replaced values or {@link #clear()}
+     */
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher,
+        BiConsumer<K, V> removalListener) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+    }
+
+    @Nullable
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Gets the cached value or computes and caches it.
+     * <p>
+     * The value is computed outside the lock, so concurrent callers may compute the same value
+     * more than once, but never block each other while doing so.
+     *
+     * @param key cache key
+     * @param loader computes the value if absent
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V loaded = loader.apply(key);
+        put(key, loaded);
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        long entryWeight = weigher.applyAsLong(value);
+        if (entryWeight > maxWeight) {
+            // the new value is not cached, so the previous one must not be served instead
+            remove(key);
+            return;
+        }
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        weight += entryWeight;
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            iterator.remove();
+            removalListener.accept(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public synchronized void remove(K key) {
+        V removed = entries.remove(key);
+        if (removed != null) {
+            weight -= weigher.applyAsLong(removed);
+            removalListener.accept(key, removed);
+        }
+    }
+
+    public synchronized void removeIf(Predicate<K> predicate) {
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, V> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                weight -= weigher.applyAsLong(entry.getValue());
+                iterator.remove();
+                removalListener.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+}
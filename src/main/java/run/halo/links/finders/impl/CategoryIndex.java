@@ -0,0 +1,469 @@
+package run.halo.links.finders.impl;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.vo.CategoryTreeNode;
+import run.halo.links.vo.CategoryTreeSnapshot;
+import run.halo.links.vo.CategoryVo;
+
+/**
+ * <p>A shared in-memory index of all {@link Category} extensions.</p>
+ * <p>The index is loaded once at startup and then kept up to date by watching category
+ * changes through {@link ReactiveExtensionClient}. Readers get an immutable {@link Forest}
+ * holding the name lookup, parent links and sorted children, which is rebuilt lazily only
+ * after a category has changed.</p>
+ *
+ * @since 2.0.0
+ */
+@Slf4j
+@Component
+public class CategoryIndex implements InitializingBean, DisposableBean {
+    private final ReactiveExtensionClient client;
+
+    private final Map<String, Category> categories = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicReference<Mono<Void>> loader = new AtomicReference<>();
+
+    private final IndexWatcher<Category> watcher =
+        new IndexWatcher<>(Category.class, this::merge, this::remove);
+
+    /**
+     * Names of categories deleted while the initial listing is merged, so that a listed copy
+     * does not bring them back.
+     */
+    private final Set<String> tombstones = ConcurrentHashMap.newKeySet();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean loaded;
+
+    private volatile Forest forest;
+
+    public CategoryIndex(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        client.watch(watcher);
+        // load eagerly so that synchronous template calls do not find an empty index
+        load().subscribe(null, e -> {
+            // logged by load, the next reader retries
+        });
+    }
+
+    @Override
+    public void destroy() {
+        watcher.dispose();
+    }
+
+    /**
+     * Gets the current category forest, loading all categories on first use.
+     *
+     * @return the current immutable forest
+     */
+    public Mono<Forest> forest() {
+        if (loaded) {
+            return Mono.fromSupplier(this::current);
+        }
+        return load().then(Mono.fromSupplier(this::current));
+    }
+
+    /**
+     * Gets the current category forest without triggering a load.
+     *
+     * @return the current forest, or null if the index has not been loaded yet
+     */
+    @Nullable
+    public Forest currentOrNull() {
+        return loaded ? current() : null;
+    }
+
+    /**
+     * Completes once all categories are loaded, without building a forest.
+     */
+    Mono<Void> ready() {
+        return loaded ? Mono.empty() : load();
+    }
+
+    /**
+     * Gets the number of indexed categories.
+     */
+    public int size() {
+        return categories.size();
+    }
+
+    /**
+     * Registers a listener that is told about every category change the index applies.
+     */
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Gets the indexed categories as a live view.
+     */
+    Collection<Category> categories() {
+        return Collections.unmodifiableCollection(categories.values());
+    }
+
+    private Mono<Void> load() {
+        return loader.updateAndGet(existing -> existing != null ? existing
+            : client.list(Category.class, null, null)
+                .doOnNext(this::mergeListed)
+                .then()
+                .doOnSuccess(unused -> {
+                    loaded = true;
+                    tombstones.clear();
+                })
+                .doOnError(e -> {
+                    log.warn("Failed to load categories into the index.", e);
+                    loader.set(null);
+                })
+                .cache());
+    }
+
+    private Forest current() {
+        Forest current = this.forest;
+        if (current != null) {
+            return current;
+        }
+        long expectedVersion = version.get();
+        Forest rebuilt = Forest.build(expectedVersion, categories.values());
+        synchronized (this) {
+            // only publish if no category changed while we were building
+            if (version.get() == expectedVersion) {
+                this.forest = rebuilt;
+            }
+        }
+        return rebuilt;
+    }
+
+    private void mergeListed(Category category) {
+        if (tombstones.contains(category.getMetadata().getName())) {
+            return;
+        }
+        merge(category);
+    }
+
+    private void merge(Category category) {
+        tombstones.remove(category.getMetadata().getName());
+        Category current = categories.merge(category.getMetadata().getName(), category,
+            (existing, incoming) -> isNewer(incoming, existing) ? incoming : existing);
+        invalidate();
+        listeners.forEach(listener -> listener.onMerged(current));
+    }
+
+    private void remove(Category category) {
+        if (!loaded) {
+            tombstones.add(category.getMetadata().getName());
+        }
+        Category existing = categories.remove(category.getMetadata().getName());
+        invalidate();
+        if (existing != null) {
+            listeners.forEach(listener -> listener.onRemoved(existing));
+        }
+    }
+
+    private void invalidate() {
+        synchronized (this) {
+            version.incrementAndGet();
+            this.forest = null;
+        }
+    }
+
+    private static boolean isNewer(Category incoming, Category existing) {
+        Long incomingVersion = incoming.getMetadata().getVersion();
+        Long existingVersion = existing.getMetadata().getVersion();
+        if (incomingVersion == null || existingVersion == null) {
+            return true;
+        }
+        return incomingVersion >= existingVersion;
+    }
+
+    static Comparator<CategoryVo> defaultTreeNodeComparator() {
+        Function<CategoryVo, Integer> priority =
+            category -> Objects.requireNonNullElse(category.getSpec().getPriority(), 0);
+        Function<CategoryVo, Instant> creationTimestamp =
+            category -> category.getMetadata().getCreationTimestamp();
+        Function<CategoryVo, String> name =
+            category -> category.getMetadata().getName();
+        return Comparator.comparing(priority)
+            .thenComparing(creationTimestamp)
+            .thenComparing(name);
+    }
+
+    static Comparator<CategoryVo> listComparator() {
+        return defaultTreeNodeComparator().reversed();
+    }
+
+    /**
+     * Gets told about categories being added, updated or removed.
+     */
+    interface Listener {
+        /**
+         * Called with the category the index keeps after an add or update.
+         */
+        void onMerged(Category category);
+
+        void onRemoved(Category category);
+    }
+
+    /**
+     * An immutable view of all categories with resolved parent links and children sorted by
+     * {@link #defaultTreeNodeComparator()}. Parent links never form a cycle, see
+     * {@link #breakCycles(Map)}.
+     */
+    public static final class Forest {
+        private final long version;
+
+        private final Map<String, CategoryVo> categories;
+
+        private final Map<String, String> parents;
+
+        private final Map<String, List<String>> children;
+
+        private final List<String> roots;
+
+        private final Map<String, Set<String>> descendants = new ConcurrentHashMap<>();
+
+        private volatile List<CategoryVo> ordered;
+
+        private volatile CategoryTreeSnapshot tree;
+
+        private Forest(long version, Map<String, CategoryVo> categories,
+            Map<String, String> parents, Map<String, List<String>> children,
+            List<String> roots) {
+            this.version = version;
+            this.categories = categories;
+            this.parents = parents;
+            this.children = children;
+            this.roots = roots;
+        }
+
+        static Forest build(long version, Collection<Category> source) {
+            Map<String, CategoryVo> categories = new HashMap<>(source.size() * 4 / 3 + 1);
+            for (Category category : source) {
+                categories.put(category.getMetadata().getName(), CategoryVo.from(category));
+            }
+
+            Map<String, String> parents = new HashMap<>(categories.size() * 4 / 3 + 1);
+            categories.forEach((name, category) -> {
+                List<String> childNames = category.getSpec().getChildren();
+                if (childNames == null) {
+                    return;
+                }
+                for (String child : childNames) {
+                    if (categories.containsKey(child)) {
+                        parents.put(child, name);
+                    }
+                }
+            });
+            breakCycles(parents);
+
+            // one sort of all categories puts every list of siblings in order when they are
+            // handed to their parents in that order, into lists sized by a counting pass
+            CategoryVo[] sorted = categories.values().toArray(new CategoryVo[0]);
+            Arrays.sort(sorted, defaultTreeNodeComparator());
+            Map<String, Integer> childCounts = new HashMap<>(parents.size() * 4 / 3 + 1);
+            for (String parent : parents.values()) {
+                childCounts.merge(parent, 1, Integer::sum);
+            }
+            Map<String, List<String>> children = new HashMap<>(childCounts.size() * 4 / 3 + 1);
+            List<String> roots = new ArrayList<>(categories.size() - parents.size());
+            for (CategoryVo category : sorted) {
+                String name = category.getMetadata().getName();
+                String parent = parents.get(name);
+                if (parent == null) {
+                    roots.add(name);
+                } else {
+                    children.computeIfAbsent(parent,
+                        k -> new ArrayList<>(childCounts.get(k))).add(name);
+                }
+            }
+            children.replaceAll((parent, names) -> Collections.unmodifiableList(names));
+
+            return new Forest(version, Collections.unmodifiableMap(categories),
+                Collections.unmodifiableMap(parents), Collections.unmodifiableMap(children),
+                Collections.unmodifiableList(roots));
+        }
+
+        /**
+         * Removes one parent link of every cycle in the parent links, so that the category
+         * the cycle is cut at becomes a root and every category is reachable from a root.
+         * The cycle is cut at its smallest name to keep the result stable.
+         */
+        static void breakCycles(Map<String, String> parents) {
+            Set<String> done = new HashSet<>(parents.size() * 4 / 3 + 1);
+            for (String start : new ArrayList<>(parents.keySet())) {
+                List<String> path = new ArrayList<>();
+                Map<String, Integer> positions = new HashMap<>();
+                String current = start;
+                while (current != null && !done.contains(current)) {
+                    Integer position = positions.putIfAbsent(current, path.size());
+                    if (position != null) {
+                        List<String> cycle = path.subList(position, path.size());
+                        parents.remove(Collections.min(cycle));
+                        break;
+                    }
+                    path.add(current);
+                    current = parents.get(current);
+                }
+                done.addAll(path);
+            }
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return categories.size();
+        }
+
+        public boolean contains(String name) {
+            return name != null && categories.containsKey(name);
+        }
+
+        @Nullable
+        public CategoryVo get(String name) {
+            return name == null ? null : categories.get(name);
+        }
+
+        @Nullable
+        public String parentOf(String name) {
+            return name == null ? null : parents.get(name);
+        }
+
+        public List<String> childrenOf(String name) {
+            return children.getOrDefault(name, List.of());
+        }
+
+        public List<String> roots() {
+            return roots;
+        }
+
+        /**
+         * Gets all categories in {@link MyCategoryFinderImpl#defaultComparator()} order, which
+         * is the reverse of {@link #defaultTreeNodeComparator()}.
+         *
+         * @return an unmodifiable list sorted on first use
+         */
+        public List<CategoryVo> ordered() {
+            List<CategoryVo> current = ordered;
+            if (current == null) {
+                List<CategoryVo> sorted = new ArrayList<>(categories.values());
+                sorted.sort(listComparator());
+                current = Collections.unmodifiableList(sorted);
+                ordered = current;
+            }
+            return current;
+        }
+
+        /**
+         * Gets the immutable category tree of this forest.
+         * <p>
+         * The tree is built once per forest on first request, so it is replaced as a whole
+         * when a category changes and shared by all readers until then.
+         *
+         * @return the tree snapshot with the version of this forest
+         */
+        public CategoryTreeSnapshot tree() {
+            CategoryTreeSnapshot current = tree;
+            if (current == null) {
+                current = buildTree();
+                tree = current;
+            }
+            return current;
+        }
+
+        private CategoryTreeSnapshot buildTree() {
+            // visit parents before children, then build the nodes in reverse so that the
+            // children of a node already exist when it is created
+            List<String> preOrder = new ArrayList<>(categories.size());
+            Deque<String> stack = new ArrayDeque<>(roots);
+            while (!stack.isEmpty()) {
+                String current = stack.pop();
+                preOrder.add(current);
+                for (String child : childrenOf(current)) {
+                    stack.push(child);
+                }
+            }
+            Map<String, CategoryTreeNode> nodes = new HashMap<>(preOrder.size() * 4 / 3 + 1);
+            for (int i = preOrder.size() - 1; i >= 0; i--) {
+                String name = preOrder.get(i);
+                List<String> childNames = childrenOf(name);
+                List<CategoryTreeNode> childNodes = new ArrayList<>(childNames.size());
+                for (String child : childNames) {
+                    childNodes.add(nodes.get(child));
+                }
+                nodes.put(name, new CategoryTreeNode(categories.get(name), parentOf(name),
+                    childNodes));
+            }
+            List<CategoryTreeNode> rootNodes = new ArrayList<>(roots.size());
+            for (String root : roots) {
+                rootNodes.add(nodes.get(root));
+            }
+            return new CategoryTreeSnapshot(version, rootNodes, nodes);
+        }
+
+        /**
+         * Gets the names of the given category and all of its descendants.
+         * <p>
+         * Closures are computed once per forest on first request and reused until a category
+         * changes and a new forest is built.
+         *
+         * @param name category name
+         * @return an unmodifiable set including the category itself, or empty if not found
+         */
+        public Set<String> descendantsOf(String name) {
+            if (!contains(name)) {
+                return Set.of();
+            }
+            return descendants.computeIfAbsent(name, this::computeDescendants);
+        }
+
+        private Set<String> computeDescendants(String name) {
+            Set<String> result = new HashSet<>();
+            Deque<String> stack = new ArrayDeque<>();
+            stack.push(name);
+            while (!stack.isEmpty()) {
+                String current = stack.pop();
+                if (!result.add(current)) {
+                    continue;
+                }
+                for (String child : childrenOf(current)) {
+                    stack.push(child);
+                }
+            }
+            return Collections.unmodifiableSet(result);
+        }
+    }
+}
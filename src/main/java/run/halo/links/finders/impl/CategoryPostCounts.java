@@ -0,0 +1,139 @@
+package run.halo.links.finders.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Post;
+
+/**
+ * <p>Descendant-inclusive post counts of categories, i.e. the number of distinct visible posts
+ * in a category and all of its subcategories.</p>
+ * <p>The counts are computed once per version of the category tree from the {@link PostIndex}.
+ * After that, publishing or unpublishing a post only updates the categories on the ancestor
+ * paths of its categories, so reading a count is a single lookup. A post in several
+ * categories that share an ancestor is counted once for that ancestor.</p>
+ *
+ * @since 2.0.0
+ */
+@Component
+public class CategoryPostCounts implements InitializingBean, PostIndex.Listener {
+    private final PostIndex postIndex;
+
+    private volatile Counts counts;
+
+    public CategoryPostCounts(PostIndex postIndex) {
+        this.postIndex = postIndex;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        postIndex.addListener(this);
+    }
+
+    /**
+     * Completes once all visible posts are counted.
+     */
+    public Mono<Void> ready() {
+        return postIndex.ready();
+    }
+
+    /**
+     * Whether all visible posts are counted, without triggering a load.
+     */
+    public boolean isReady() {
+        return postIndex.isLoaded();
+    }
+
+    /**
+     * Gets the counts for the given category forest, counting all posts again if a category
+     * changed since the last count.
+     *
+     * @param forest the current category forest
+     * @return the counts, to be read by {@link Counts#totalOf(String)}
+     */
+    public Counts countsOf(CategoryIndex.Forest forest) {
+        Counts current = counts;
+        if (current != null && current.version >= forest.getVersion()) {
+            return current;
+        }
+        // lock the post index so that no post is linked between counting and publishing
+        postIndex.locked(() -> {
+            Counts latest = counts;
+            if (latest == null || latest.version < forest.getVersion()) {
+                Counts recounted = new Counts(forest);
+                for (Post post : postIndex.posts()) {
+                    recounted.apply(post, 1);
+                }
+                counts = recounted;
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public void onLinked(Post post) {
+        Counts current = counts;
+        if (current != null) {
+            current.apply(post, 1);
+        }
+    }
+
+    @Override
+    public void onUnlinked(Post post) {
+        Counts current = counts;
+        if (current != null) {
+            current.apply(post, -1);
+        }
+    }
+
+    /**
+     * Post counts of one version of the category tree.
+     */
+    public static final class Counts {
+        private final long version;
+
+        private final CategoryIndex.Forest forest;
+
+        private final Map<String, AtomicInteger> totals = new ConcurrentHashMap<>();
+
+        private Counts(CategoryIndex.Forest forest) {
+            this.version = forest.getVersion();
+            this.forest = forest;
+        }
+
+        /**
+         * Gets the number of visible posts in the category and all of its subcategories.
+         */
+        public int totalOf(String name) {
+            AtomicInteger total = totals.get(name);
+            return total == null ? 0 : total.get();
+        }
+
+        private void apply(Post post, int delta) {
+            List<String> categories = post.getSpec().getCategories();
+            if (categories == null || categories.isEmpty()) {
+                return;
+            }
+            Set<String> counted = new HashSet<>();
+            for (String category : categories) {
+                String current = forest.contains(category) ? category : null;
+                // bounded by the forest size to guard against cyclic parent links
+                for (int i = 0; current != null && i < forest.size(); i++) {
+                    if (!counted.add(current)) {
+                        // the rest of the path was counted through another category
+                        break;
+                    }
+                    totals.computeIfAbsent(current, key -> new AtomicInteger())
+                        .addAndGet(delta);
+                    current = forest.parentOf(current);
+                }
+            }
+        }
+    }
+}
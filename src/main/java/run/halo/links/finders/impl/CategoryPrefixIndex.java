@@ -0,0 +1,235 @@
+package run.halo.links.finders.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Category;
+import run.halo.links.vo.CategoryVo;
+
+/**
+ * <p>A prefix index over the display names and slugs of all categories, for typeahead.</p>
+ * <p>Keys are lower-cased and kept in one array sorted by key, so the categories matching a
+ * prefix are a contiguous range found by binary search. The array is replaced copy-on-write,
+ * so readers never lock. It is built in one pass on first use and then updated per category
+ * change through {@link CategoryIndex.Listener}, which only moves the few keys of that
+ * category.</p>
+ *
+ * @since 2.0.0
+ */
+@Component
+public class CategoryPrefixIndex implements InitializingBean, CategoryIndex.Listener {
+    private static final Comparator<Entry> ENTRY_COMPARATOR =
+        Comparator.comparing(Entry::key).thenComparing(Entry::name);
+
+    private final CategoryIndex categoryIndex;
+
+    /**
+     * The indexed category and its entries by category name, guarded by this.
+     */
+    private final Map<String, Indexed> indexed = new HashMap<>();
+
+    /**
+     * All entries sorted by {@link #ENTRY_COMPARATOR}, or null until first use.
+     */
+    private volatile Entry[] entries;
+
+    public CategoryPrefixIndex(CategoryIndex categoryIndex) {
+        this.categoryIndex = categoryIndex;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        categoryIndex.addListener(this);
+    }
+
+    /**
+     * Finds the categories whose display name or slug starts with the given prefix, ignoring
+     * case.
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of categories to return
+     * @return up to limit matches in {@link MyCategoryFinderImpl#defaultComparator()} order,
+     * i.e. by priority
+     */
+    public Mono<List<CategoryVo>> search(String prefix, int limit) {
+        // only the loaded categories are needed, not the forest rebuilt after every change
+        return categoryIndex.ready()
+            .then(Mono.fromSupplier(() -> search(entries(), normalize(prefix), limit)));
+    }
+
+    /**
+     * Gets the number of indexed keys.
+     */
+    public int size() {
+        Entry[] current = entries;
+        return current == null ? 0 : current.length;
+    }
+
+    @Override
+    public synchronized void onMerged(Category category) {
+        if (entries == null) {
+            // built from the category index on first use
+            return;
+        }
+        String name = category.getMetadata().getName();
+        Indexed existing = indexed.get(name);
+        if (existing != null && isOlder(category, existing.category())) {
+            return;
+        }
+        Entry[] updated = existing == null ? entries : delete(entries, existing.entries());
+        Indexed incoming = index(category);
+        for (Entry entry : incoming.entries()) {
+            updated = insert(updated, entry);
+        }
+        indexed.put(name, incoming);
+        entries = updated;
+    }
+
+    @Override
+    public synchronized void onRemoved(Category category) {
+        if (entries == null) {
+            return;
+        }
+        Indexed existing = indexed.remove(category.getMetadata().getName());
+        if (existing != null) {
+            entries = delete(entries, existing.entries());
+        }
+    }
+
+    private Entry[] entries() {
+        Entry[] current = entries;
+        return current != null ? current : build();
+    }
+
+    private synchronized Entry[] build() {
+        if (entries != null) {
+            return entries;
+        }
+        List<Entry> all = new ArrayList<>();
+        for (Category category : categoryIndex.categories()) {
+            Indexed incoming = index(category);
+            indexed.put(incoming.category().getMetadata().getName(), incoming);
+            all.addAll(Arrays.asList(incoming.entries()));
+        }
+        Entry[] built = all.toArray(new Entry[0]);
+        Arrays.sort(built, ENTRY_COMPARATOR);
+        entries = built;
+        return built;
+    }
+
+    static List<CategoryVo> search(Entry[] entries, String prefix, int limit) {
+        if (prefix.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        // a category matching by both display name and slug is only returned once
+        Set<String> names = new HashSet<>();
+        List<CategoryVo> matches = new ArrayList<>();
+        for (int i = lowerBound(entries, prefix);
+             i < entries.length && entries[i].key().startsWith(prefix); i++) {
+            if (names.add(entries[i].name())) {
+                matches.add(entries[i].category());
+            }
+        }
+        return TopKSelector.select(matches, CategoryIndex.listComparator(), 0, limit);
+    }
+
+    /**
+     * Finds the position of the first key that is not less than the prefix.
+     */
+    private static int lowerBound(Entry[] entries, String prefix) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Indexed index(Category category) {
+        CategoryVo categoryVo = CategoryVo.from(category);
+        String name = category.getMetadata().getName();
+        Set<String> keys = new LinkedHashSet<>(2);
+        Category.CategorySpec spec = category.getSpec();
+        if (spec != null) {
+            addKey(keys, spec.getDisplayName());
+            addKey(keys, spec.getSlug());
+        }
+        Entry[] categoryEntries = new Entry[keys.size()];
+        int i = 0;
+        for (String key : keys) {
+            categoryEntries[i++] = new Entry(key, name, categoryVo);
+        }
+        return new Indexed(categoryVo, categoryEntries);
+    }
+
+    private static void addKey(Set<String> keys, @Nullable String text) {
+        String key = normalize(text);
+        if (!key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    static String normalize(@Nullable String text) {
+        return StringUtils.trimToEmpty(text).toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry[] insert(Entry[] current, Entry entry) {
+        int index = Arrays.binarySearch(current, entry, ENTRY_COMPARATOR);
+        int insertAt = index >= 0 ? index : -index - 1;
+        Entry[] updated = new Entry[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = entry;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        return updated;
+    }
+
+    private static Entry[] delete(Entry[] current, Entry[] removed) {
+        Entry[] updated = current;
+        for (Entry entry : removed) {
+            int index = Arrays.binarySearch(updated, entry, ENTRY_COMPARATOR);
+            if (index < 0) {
+                continue;
+            }
+            Entry[] shrunk = new Entry[updated.length - 1];
+            System.arraycopy(updated, 0, shrunk, 0, index);
+            System.arraycopy(updated, index + 1, shrunk, index, updated.length - index - 1);
+            updated = shrunk;
+        }
+        return updated;
+    }
+
+    private static boolean isOlder(Category incoming, CategoryVo existing) {
+        Long incomingVersion = incoming.getMetadata().getVersion();
+        Long existingVersion = existing.getMetadata().getVersion();
+        if (incomingVersion == null || existingVersion == null) {
+            return false;
+        }
+        return incomingVersion < existingVersion;
+    }
+
+    /**
+     * A normalized key pointing at the category it was taken from.
+     */
+    record Entry(String key, String name, CategoryVo category) {
+    }
+
+    private record Indexed(CategoryVo category, Entry[] entries) {
+    }
+}
@@ -0,0 +1,158 @@
+package run.halo.links.finders.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import run.halo.app.core.extension.content.Snapshot;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.WeightedLruCache;
+import run.halo.links.vo.ContentVo;
+
+/**
+ * <p>A size-bounded cache of rendered {@link ContentVo} keyed by release and base snapshot
+ * name.</p>
+ * <p>Entries are evicted in least-recently-used order once the estimated byte size of all
+ * cached contents exceeds the configured budget. Since snapshot names are not reused, entries
+ * only need to be invalidated by name when a snapshot changes or is deleted, which looks up
+ * the entries of that snapshot in a reverse index instead of scanning the cache.</p>
+ * <p>Every reader gets its own {@link ContentVo}, so a caller modifying it can not affect
+ * other requests.</p>
+ *
+ * @since 2.0.0
+ */
+@Component
+public class ContentCache implements InitializingBean, DisposableBean {
+    /**
+     * Rough per-entry overhead of the key, value object and map node.
+     */
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final ReactiveExtensionClient client;
+
+    private final WeightedLruCache<Key, ContentVo> entries;
+
+    /**
+     * Cached keys by release and base snapshot name, guarded by this.
+     */
+    private final Map<String, Set<Key>> keysBySnapshot = new HashMap<>();
+
+    private final IndexWatcher<Snapshot> watcher =
+        new IndexWatcher<>(Snapshot.class, this::invalidate, this::invalidate);
+
+    public ContentCache(ReactiveExtensionClient client,
+        @Value("${links.content-cache.max-bytes:67108864}") long maxBytes) {
+        this.client = client;
+        // removals are only triggered from the synchronized methods below
+        this.entries = new WeightedLruCache<>(maxBytes, ContentCache::weigh,
+            (key, content) -> unindex(key));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        client.watch(watcher);
+    }
+
+    @Override
+    public void destroy() {
+        watcher.dispose();
+        clear();
+    }
+
+    @Nullable
+    public ContentVo get(String releaseSnapshot, String baseSnapshot) {
+        ContentVo cached = entries.get(new Key(releaseSnapshot, baseSnapshot));
+        return cached == null ? null : copy(cached);
+    }
+
+    /**
+     * Caches the content rendered from the given snapshots.
+     *
+     * @param releaseSnapshot release snapshot name
+     * @param baseSnapshot base snapshot name
+     * @param content rendered content
+     */
+    public synchronized void put(String releaseSnapshot, String baseSnapshot,
+        ContentVo content) {
+        Key key = new Key(releaseSnapshot, baseSnapshot);
+        entries.put(key, copy(content));
+        // contents over the budget are not cached
+        if (entries.get(key) != null) {
+            index(key);
+        }
+    }
+
+    /**
+     * Drops every entry rendered from the given snapshot.
+     *
+     * @param snapshotName release or base snapshot name
+     */
+    public synchronized void invalidate(String snapshotName) {
+        Set<Key> keys = keysBySnapshot.get(snapshotName);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : Set.copyOf(keys)) {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keysBySnapshot.clear();
+    }
+
+    /**
+     * Copies the content so that the copy can be handed to a single caller.
+     */
+    static ContentVo copy(ContentVo content) {
+        return ContentVo.builder()
+            .raw(content.getRaw())
+            .content(content.getContent())
+            .build();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return entries.weight();
+    }
+
+    private void invalidate(Snapshot snapshot) {
+        invalidate(snapshot.getMetadata().getName());
+    }
+
+    private void index(Key key) {
+        keysBySnapshot.computeIfAbsent(key.releaseSnapshot(), name -> new HashSet<>()).add(key);
+        keysBySnapshot.computeIfAbsent(key.baseSnapshot(), name -> new HashSet<>()).add(key);
+    }
+
+    private void unindex(Key key) {
+        unindex(key.releaseSnapshot(), key);
+        unindex(key.baseSnapshot(), key);
+    }
+
+    private void unindex(String snapshotName, Key key) {
+        Set<Key> keys = keysBySnapshot.get(snapshotName);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysBySnapshot.remove(snapshotName);
+        }
+    }
+
+    static long weigh(ContentVo content) {
+        // strings are at most two bytes per char
+        return ENTRY_OVERHEAD + 2L
+            * (StringUtils.length(content.getContent()) + StringUtils.length(content.getRaw()));
+    }
+
+    private record Key(String releaseSnapshot, String baseSnapshot) {
+    }
+}
@@ -0,0 +1,147 @@
+package run.halo.links.finders.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.core.extension.content.Snapshot;
+import run.halo.app.extension.MetadataUtil;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.ContentWrapper;
+import run.halo.links.MyPostPublicQueryService;
+import run.halo.links.vo.ContentVo;
+
+/**
+ * <p>Renders the released content of posts into the {@link ContentCache}.</p>
+ * <p>When the release snapshot of a visible post changes, its content is patched once in the
+ * background, so publishing pays for the patching rather than the first readers. Readers that
+ * miss the cache, e.g. after an eviction, render through {@link #materialize(String, String)}
+ * as well and share a render that is already running.</p>
+ *
+ * @since 2.0.0
+ */
+@Slf4j
+@Component
+public class ContentMaterializer implements InitializingBean, DisposableBean {
+    private final ReactiveExtensionClient client;
+
+    private final ContentCache contentCache;
+
+    /**
+     * The release and base snapshot each post was last materialized for.
+     */
+    private final Map<String, Key> released = new ConcurrentHashMap<>();
+
+    private final Map<Key, Mono<ContentVo>> rendering = new ConcurrentHashMap<>();
+
+    private final IndexWatcher<Post> watcher =
+        new IndexWatcher<>(Post.class, this::onPostChanged, this::onPostDeleted);
+
+    public ContentMaterializer(ReactiveExtensionClient client, ContentCache contentCache) {
+        this.client = client;
+        this.contentCache = contentCache;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        client.watch(watcher);
+    }
+
+    @Override
+    public void destroy() {
+        watcher.dispose();
+    }
+
+    /**
+     * Gets the content rendered from the given snapshots, from the cache if possible.
+     *
+     * @param releaseSnapshot release snapshot name
+     * @param baseSnapshot base snapshot name
+     * @return the rendered content, or empty if a snapshot does not exist
+     */
+    public Mono<ContentVo> materialize(String releaseSnapshot, String baseSnapshot) {
+        ContentVo cached = contentCache.get(releaseSnapshot, baseSnapshot);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        Key key = new Key(releaseSnapshot, baseSnapshot);
+        return rendering.computeIfAbsent(key, k -> getContent(releaseSnapshot, baseSnapshot)
+            .map(wrapper -> ContentVo.builder().content(wrapper.getContent())
+                .raw(wrapper.getRaw()).build())
+            .doOnNext(content -> contentCache.put(releaseSnapshot, baseSnapshot, content))
+            .doFinally(signal -> rendering.remove(k))
+            .cache())
+            // callers sharing a render each get their own copy
+            .map(ContentCache::copy);
+    }
+
+    /**
+     * Patches the given snapshot onto its base snapshot.
+     * <p>
+     * Patching is CPU-bound, so it runs on the bounded elastic scheduler rather than on the
+     * thread that delivered the snapshot.
+     *
+     * @param snapshotName release snapshot name
+     * @param baseSnapshotName base snapshot name
+     * @return the patched content
+     */
+    public Mono<ContentWrapper> getContent(String snapshotName, String baseSnapshotName) {
+        return client.fetch(Snapshot.class, baseSnapshotName)
+            .doOnNext(ContentMaterializer::checkBaseSnapshot)
+            .publishOn(Schedulers.boundedElastic())
+            .flatMap(baseSnapshot -> {
+                if (StringUtils.equals(snapshotName, baseSnapshotName)) {
+                    var contentWrapper = ContentWrapper.patchSnapshot(baseSnapshot, baseSnapshot);
+                    return Mono.just(contentWrapper);
+                }
+                return client.fetch(Snapshot.class, snapshotName)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(snapshot -> ContentWrapper.patchSnapshot(snapshot, baseSnapshot));
+            });
+    }
+
+    static void checkBaseSnapshot(Snapshot snapshot) {
+        Assert.notNull(snapshot, "The snapshot must not be null.");
+        String keepRawAnno =
+            MetadataUtil.nullSafeAnnotations(snapshot).get(Snapshot.KEEP_RAW_ANNO);
+        if (!org.thymeleaf.util.StringUtils.equals(Boolean.TRUE.toString(), keepRawAnno)) {
+            throw new IllegalArgumentException(
+                String.format("The snapshot [%s] is not a base snapshot.",
+                    snapshot.getMetadata().getName()));
+        }
+    }
+
+    private void onPostChanged(Post post) {
+        String name = post.getMetadata().getName();
+        String releaseSnapshot = post.getSpec().getReleaseSnapshot();
+        if (StringUtils.isBlank(releaseSnapshot)
+            || !MyPostPublicQueryService.FIXED_PREDICATE.test(post)) {
+            released.remove(name);
+            return;
+        }
+        Key key = new Key(releaseSnapshot, post.getSpec().getBaseSnapshot());
+        if (key.equals(released.put(name, key))) {
+            return;
+        }
+        materialize(key.releaseSnapshot(), key.baseSnapshot())
+            .subscribe(null, e -> {
+                // readers fall back to rendering on request
+                released.remove(name, key);
+                log.warn("Failed to materialize the content of post [{}].", name, e);
+            });
+    }
+
+    private void onPostDeleted(Post post) {
+        released.remove(post.getMetadata().getName());
+    }
+
+    private record Key(String releaseSnapshot, String baseSnapshot) {
+    }
+}
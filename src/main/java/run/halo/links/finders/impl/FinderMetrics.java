@@ -0,0 +1,218 @@
+package run.halo.links.finders.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import run.halo.links.PatchUtils;
+
+/**
+ * <p>Publishes timers, row counters and index and cache gauges of the theme finders to the
+ * host {@link MeterRegistry}.</p>
+ * <p>Every meter registered here is removed again when the plugin stops, so the host registry
+ * does not keep plugin classes alive.</p>
+ *
+ * @since 2.0.0
+ */
+@Component
+public class FinderMetrics implements DisposableBean {
+    public static final String POST_FINDER = "mypostFinder";
+
+    public static final String CATEGORY_FINDER = "mycategoryFinder";
+
+    static final String FINDER_CALLS = "links.finder.calls";
+
+    static final String FINDER_ROWS_MATCHED = "links.finder.rows.matched";
+
+    static final String FINDER_ROWS_RETURNED = "links.finder.rows.returned";
+
+    static final String INDEX_SIZE = "links.index.size";
+
+    static final String CACHE_SIZE = "links.cache.size";
+
+    static final String CACHE_WEIGHT = "links.cache.weight";
+
+    static final String FINDER = "finder";
+
+    static final String METHOD = "method";
+
+    static final String OUTCOME = "outcome";
+
+    static final String SUCCESS_OUTCOME = "success";
+
+    static final String ERROR_OUTCOME = "error";
+
+    static final String CANCELLED_OUTCOME = "cancelled";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+
+    private final List<Meter> gauges = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public FinderMetrics(ObjectProvider<MeterRegistry> registry, CategoryIndex categoryIndex,
+        CategoryPrefixIndex prefixIndex, PostIndex postIndex, ContentCache contentCache,
+        PostStatsLoader statsLoader) {
+        this(registry.getIfAvailable(() -> Metrics.globalRegistry));
+        gauge(INDEX_SIZE, "index", "category", categoryIndex,
+            CategoryIndex::size);
+        gauge(INDEX_SIZE, "index", "category-prefix", prefixIndex,
+            CategoryPrefixIndex::size);
+        gauge(INDEX_SIZE, "index", "post", postIndex, PostIndex::size);
+        gauge(INDEX_SIZE, "index", "post-category", postIndex,
+            PostIndex::categoryCount);
+        gauge(CACHE_SIZE, "cache", "content", contentCache, ContentCache::size);
+        gauge(CACHE_WEIGHT, "cache", "content", contentCache,
+            ContentCache::weight);
+        gauge(CACHE_SIZE, "cache", "stats", statsLoader, PostStatsLoader::size);
+        gauge(CACHE_SIZE, "cache", "base-lines", PatchUtils.baseLinesCache(),
+            cache -> cache.size());
+        gauge(CACHE_WEIGHT, "cache", "base-lines", PatchUtils.baseLinesCache(),
+            cache -> cache.weight());
+        gauge(CACHE_SIZE, "cache", "patches", PatchUtils.patchCache(),
+            cache -> cache.size());
+        gauge(CACHE_WEIGHT, "cache", "patches", PatchUtils.patchCache(),
+            cache -> cache.weight());
+    }
+
+    public FinderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void destroy() {
+        meters.values().forEach(registry::remove);
+        meters.clear();
+        gauges.forEach(registry::remove);
+        gauges.clear();
+    }
+
+    /**
+     * Times the subscription of the given mono.
+     */
+    public <T> Mono<T> timed(String finder, String method, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = registry.config().clock().monotonicTime();
+            return source.doFinally(signal -> record(finder, method, signal, start));
+        });
+    }
+
+    /**
+     * Times the subscription of the given flux, until it completes, fails or is cancelled.
+     */
+    public <T> Flux<T> timed(String finder, String method, Flux<T> source) {
+        return Flux.defer(() -> {
+            long start = registry.config().clock().monotonicTime();
+            return source.doFinally(signal -> record(finder, method, signal, start));
+        });
+    }
+
+    /**
+     * Times a blocking finder method.
+     */
+    public <T> T timed(String finder, String method, Supplier<T> source) {
+        long start = registry.config().clock().monotonicTime();
+        String outcome = ERROR_OUTCOME;
+        try {
+            T result = source.get();
+            outcome = SUCCESS_OUTCOME;
+            return result;
+        } finally {
+            timer(finder, method, outcome)
+                .record(registry.config().clock().monotonicTime() - start,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records how many rows matched the query of a finder call and how many it returned.
+     * Index lookups seek to the returned rows, so the matches are not rows that were read.
+     */
+    public void rows(String finder, String method, long matched, long returned) {
+        ((Counter) meters.computeIfAbsent(
+            FINDER_ROWS_MATCHED + "#" + finder + "#" + method,
+            k -> rowsMatchedCounter(registry, finder, method)))
+            .increment(matched);
+        returned(finder, method, returned);
+    }
+
+    /**
+     * Records how many rows a finder call returned, for calls that do not count all matches.
+     */
+    public void returned(String finder, String method, long returned) {
+        ((Counter) meters.computeIfAbsent(
+            FINDER_ROWS_RETURNED + "#" + finder + "#" + method,
+            k -> rowsReturnedCounter(registry, finder, method)))
+            .increment(returned);
+    }
+
+    private void record(String finder, String method, SignalType signal, long start) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> ERROR_OUTCOME;
+            case CANCEL -> CANCELLED_OUTCOME;
+            default -> SUCCESS_OUTCOME;
+        };
+        timer(finder, method, outcome).record(registry.config().clock().monotonicTime() - start,
+            TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String finder, String method, String outcome) {
+        return (Timer) meters.computeIfAbsent(
+            FINDER_CALLS + "#" + finder + "#" + method + "#" + outcome,
+            key -> finderTimer(registry, finder, method, outcome));
+    }
+
+    /**
+     * Builds a {@link Timer} with a percentile histogram for a finder method.
+     * <p>
+     * Finder meters are not tagged with the common tag of the host's counter meters, since
+     * they must not be persisted into {@link run.halo.app.core.extension.Counter} extensions.
+     */
+    static Timer finderTimer(MeterRegistry registry, String finder, String method,
+        String outcome) {
+        return Timer.builder(FINDER_CALLS)
+            .description("Time spent in theme finder methods")
+            .tags(FINDER, finder, METHOD, method, OUTCOME, outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    static Counter rowsMatchedCounter(MeterRegistry registry, String finder, String method) {
+        return Counter.builder(FINDER_ROWS_MATCHED)
+            .description("Rows matching the query of a finder method, of which it returned a"
+                + " page")
+            .tags(FINDER, finder, METHOD, method)
+            .register(registry);
+    }
+
+    static Counter rowsReturnedCounter(MeterRegistry registry, String finder, String method) {
+        return Counter.builder(FINDER_ROWS_RETURNED)
+            .description("Rows a finder method returned")
+            .tags(FINDER, finder, METHOD, method)
+            .register(registry);
+    }
+
+    private <T> void gauge(String name, String tagKey, String tagValue, T target,
+        ToDoubleFunction<T> value) {
+        gauges.add(Gauge.builder(name, target, value)
+            .tag(tagKey, tagValue)
+            .register(registry));
+    }
+}
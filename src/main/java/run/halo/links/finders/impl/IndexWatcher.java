@@ -0,0 +1,93 @@
+package run.halo.links.finders.impl;
+
+import java.util.function.Consumer;
+import run.halo.app.extension.Extension;
+import run.halo.app.extension.GroupVersionKind;
+import run.halo.app.extension.Unstructured;
+import run.halo.app.extension.Watcher;
+import run.halo.app.infra.utils.JsonUtils;
+
+/**
+ * A {@link Watcher} that forwards changes of a single extension type to an in-memory index.
+ *
+ * @param <E> the watched extension type
+ * @since 2.0.0
+ */
+class IndexWatcher<E extends Extension> implements Watcher {
+    private final Class<E> type;
+
+    private final GroupVersionKind gvk;
+
+    private final Consumer<E> onUpsert;
+
+    private final Consumer<E> onRemove;
+
+    private volatile boolean disposed;
+
+    private Runnable disposeHook;
+
+    IndexWatcher(Class<E> type, Consumer<E> onUpsert, Consumer<E> onRemove) {
+        this.type = type;
+        this.gvk = GroupVersionKind.fromExtension(type);
+        this.onUpsert = onUpsert;
+        this.onRemove = onRemove;
+    }
+
+    @Override
+    public void onAdd(Extension extension) {
+        E converted = convert(extension);
+        if (converted != null) {
+            onUpsert.accept(converted);
+        }
+    }
+
+    @Override
+    public void onUpdate(Extension oldExtension, Extension newExtension) {
+        E converted = convert(newExtension);
+        if (converted != null) {
+            onUpsert.accept(converted);
+        }
+    }
+
+    @Override
+    public void onDelete(Extension extension) {
+        E converted = convert(extension);
+        if (converted != null) {
+            onRemove.accept(converted);
+        }
+    }
+
+    @Override
+    public void registerDisposeHook(Runnable dispose) {
+        this.disposeHook = dispose;
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        if (disposeHook != null) {
+            disposeHook.run();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private E convert(Extension extension) {
+        if (disposed || extension == null) {
+            return null;
+        }
+        if (type.isInstance(extension)) {
+            return type.cast(extension);
+        }
+        if (extension instanceof Unstructured && gvk.equals(extension.groupVersionKind())) {
+            return JsonUtils.mapper().convertValue(extension, type);
+        }
+        return null;
+    }
+}
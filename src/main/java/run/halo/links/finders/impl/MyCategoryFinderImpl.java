@@ -1,27 +1,37 @@
 package run.halo.links.finders.impl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import run.halo.app.core.extension.content.Category;
 import run.halo.app.extension.ListResult;
 import run.halo.app.extension.ReactiveExtensionClient;
 import run.halo.app.theme.finders.Finder;
 import run.halo.links.MyCategoryFinder;
+import run.halo.links.WeightedLruCache;
+import run.halo.links.vo.CategoryTreeNode;
+import run.halo.links.vo.CategoryTreeSnapshot;
 import run.halo.links.vo.CategoryTreeVo;
 import run.halo.links.vo.CategoryVo;
+import run.halo.links.vo.MyCursorListResult;
+import run.halo.links.vo.TreeRenderer;
+
+import static run.halo.links.finders.impl.FinderMetrics.CATEGORY_FINDER;
 
 /**
  * A default implementation of {@link MyCategoryFinder}.
@@ -32,16 +42,38 @@ import run.halo.links.vo.CategoryVo;
 @Slf4j
 @Finder("mycategoryFinder")
 public class MyCategoryFinderImpl implements MyCategoryFinder {
+    /**
+     * Budget of rendered tree texts, in estimated bytes.
+     */
+    static final long RENDERED_TREES_MAX_BYTES = 4L * 1024 * 1024;
+
+    private final WeightedLruCache<RenderedTreeKey, String> renderedTrees =
+        new WeightedLruCache<>(RENDERED_TREES_MAX_BYTES, text -> 64 + 2L * text.length());
+
     private final ReactiveExtensionClient client;
 
-    public MyCategoryFinderImpl(ReactiveExtensionClient client) {
+    private final CategoryIndex categoryIndex;
+
+    private final CategoryPostCounts postCounts;
+
+    private final CategoryPrefixIndex prefixIndex;
+
+    private final FinderMetrics metrics;
+
+    public MyCategoryFinderImpl(ReactiveExtensionClient client, CategoryIndex categoryIndex,
+        CategoryPostCounts postCounts, CategoryPrefixIndex prefixIndex, FinderMetrics metrics) {
         this.client = client;
+        this.categoryIndex = categoryIndex;
+        this.postCounts = postCounts;
+        this.prefixIndex = prefixIndex;
+        this.metrics = metrics;
     }
 
     @Override
     public Mono<CategoryVo> getByName(String name) {
-        return client.fetch(Category.class, name)
-            .map(CategoryVo::from);
+        return RenderMemo.memoize(metrics.timed(CATEGORY_FINDER, "getByName",
+            client.fetch(Category.class, name).map(CategoryVo::from)),
+            CATEGORY_FINDER, "getByName", name);
     }
 
     @Override
@@ -49,220 +81,350 @@ public class MyCategoryFinderImpl implements MyCategoryFinder {
         if (names == null) {
             return Flux.empty();
         }
-        return Flux.fromIterable(names)
-            .flatMap(this::getByName);
+        return metrics.timed(CATEGORY_FINDER, "getByNames", Flux.fromIterable(names)
+            .flatMap(this::getByName));
     }
 
     @Override
     public Mono<ListResult<CategoryVo>> list(Integer page, Integer size) {
-        return client.list(Category.class, null,
+        return metrics.timed(CATEGORY_FINDER, "list", client.list(Category.class, null,
                 defaultComparator(), pageNullSafe(page), sizeNullSafe(size))
             .map(list -> {
                 List<CategoryVo> categoryVos = list.get()
                     .map(CategoryVo::from)
                     .collect(Collectors.toList());
+                metrics.rows(CATEGORY_FINDER, "list", list.getTotal(), categoryVos.size());
                 return new ListResult<>(list.getPage(), list.getSize(), list.getTotal(),
                     categoryVos);
             })
-            .defaultIfEmpty(new ListResult<>(page, size, 0L, List.of()));
+            .defaultIfEmpty(new ListResult<>(page, size, 0L, List.of())));
+    }
+
+    @Override
+    public Mono<MyCursorListResult<CategoryVo>> listByCursor(@Nullable String cursor,
+        @Nullable Integer size) {
+        int limit = sizeNullSafe(size);
+        return metrics.timed(CATEGORY_FINDER, "listByCursor", categoryIndex.forest()
+            .map(forest -> {
+                CategoryVo after = PageCursor.decodeCategory(cursor);
+                List<CategoryVo> ordered = forest.ordered();
+                int start = 0;
+                if (after != null) {
+                    int index = Collections.binarySearch(ordered, after,
+                        CategoryIndex.listComparator());
+                    start = index >= 0 ? index + 1 : -index - 1;
+                }
+                int end = Math.min(start + Math.max(limit, 0), ordered.size());
+                List<CategoryVo> items = List.copyOf(ordered.subList(start, end));
+                String nextCursor = end < ordered.size() && !items.isEmpty()
+                    ? PageCursor.encode(items.get(items.size() - 1)) : null;
+                metrics.rows(CATEGORY_FINDER, "listByCursor", ordered.size(), items.size());
+                return MyCursorListResult.<CategoryVo>builder()
+                    .items(items)
+                    .nextCursor(nextCursor)
+                    .build();
+            }));
     }
 
     @Override
     public Flux<CategoryVo> listAll() {
-        return client.list(Category.class, null, defaultComparator())
-            .map(CategoryVo::from);
+        return RenderMemo.memoize(metrics.timed(CATEGORY_FINDER, "listAll",
+            client.list(Category.class, null, defaultComparator())
+                .map(CategoryVo::from)),
+            CATEGORY_FINDER, "listAll");
+    }
+
+    @Override
+    public Flux<CategoryVo> listByPrefix(String prefix, @Nullable Integer size) {
+        return metrics.timed(CATEGORY_FINDER, "listByPrefix",
+            prefixIndex.search(prefix, sizeNullSafe(size)).flatMapIterable(list -> list));
     }
 
     @Override
     public Flux<CategoryTreeVo> listAsTree() {
-        return this.tomyCategoryTreeVoFlux(null);
+        return listAsTree(null);
     }
 
     @Override
     public Flux<CategoryTreeVo> listAsTree(String name) {
-        return this.tomyCategoryTreeVoFlux(name);
+        return listAsTree(name, null);
+    }
+
+    @Override
+    public Flux<CategoryTreeVo> listAsTree(@Nullable String name, @Nullable Integer maxDepth) {
+        int depth = depthNullSafe(maxDepth);
+        return RenderMemo.memoize(metrics.timed(CATEGORY_FINDER, "listAsTree",
+            this.tomyCategoryTreeVoFlux(name, depth)), CATEGORY_FINDER, "listAsTree", name,
+            depth);
+    }
+
+    @Override
+    public Flux<CategoryTreeVo> listChildren(String name, @Nullable Integer maxDepth) {
+        if (StringUtils.isEmpty(name)) {
+            return Flux.empty();
+        }
+        int depth = depthNullSafe(maxDepth);
+        return RenderMemo.memoize(metrics.timed(CATEGORY_FINDER, "listChildren",
+            countedForest().flatMapIterable(forest -> {
+                List<String> childNames = forest.childrenOf(name);
+                List<CategoryTreeVo> children = new ArrayList<>(childNames.size());
+                for (String child : childNames) {
+                    children.add(toTreeVo(forest, child, depth));
+                }
+                return children;
+            })),
+            CATEGORY_FINDER, "listChildren", name, depth);
     }
 
     @Override
     public Flux<CategoryTreeVo> getTreeByName(String name){
-        return listAll()
-            .collectList()
-            .flatMapIterable(myCategoryVos -> {
-                Map<String, CategoryTreeVo> nameIdentityMap = myCategoryVos.stream()
-                    .map(CategoryTreeVo::from)
-                    .collect(Collectors.toMap(myCategoryVo -> myCategoryVo.getMetadata().getName(),
-                        Function.identity()));
-
-                nameIdentityMap.forEach((nameKey, value) -> {
-                    List<String> children = value.getSpec().getChildren();
-                    if (children == null) {
-                        return;
-                    }
-                    for (String child : children) {
-                        CategoryTreeVo childNode = nameIdentityMap.get(child);
-                        if (childNode != null) {
-                            childNode.setParentName(nameKey);
-                        }
+        return RenderMemo.memoize(metrics.timed(CATEGORY_FINDER, "getTreeByName",
+            countedForest()
+                .flatMapIterable(forest -> {
+                    String topParentName = topParentName(forest, name);
+                    if (topParentName == null) {
+                        return List.of();
                     }
-                });
-                return listToMyTree(nameIdentityMap.values(), name);
-            });
+                    return List.of(toTreeVo(forest, topParentName));
+                })),
+            CATEGORY_FINDER, "getTreeByName", name);
     }
 
 
     @Override
-    public  Mono<List<CategoryTreeVo>> getTreeByNamePart(String targetname){
-        Flux<CategoryTreeVo> categoryTreeVoFlux = listAll()
-            .collectList()
-            .flatMapIterable(categoryVos -> {
-                Map<String, CategoryTreeVo> nameIdentityMap = categoryVos.stream()
-                    .map(CategoryTreeVo::from)
-                    .collect(Collectors.toMap(categoryVo -> categoryVo.getMetadata().getName(),
-                        Function.identity()));
-
-                nameIdentityMap.forEach((nameKey, value) -> {
-                    List<String> children = value.getSpec().getChildren();
-                    if (children == null) {
-                        return;
-                    }
-                    for (String child : children) {
-                        CategoryTreeVo childNode = nameIdentityMap.get(child);
-                        if (childNode != null) {
-                            childNode.setParentName(nameKey);
-                        }
-                    }
-                });
-                return listToTree(nameIdentityMap.values(), null);
-            });
+    public Mono<List<CategoryTreeVo>> getTreeByNamePart(String targetname) {
+        return metrics.timed(CATEGORY_FINDER, "getTreeByNamePart", countedForest()
+            .map(forest -> pathToTopParent(forest, targetname)));
+    }
 
+    @Override
+    public Mono<CategoryTreeVo> getSubTreeByName(String targetname) {
+        return metrics.timed(CATEGORY_FINDER, "getSubTreeByName", countedForest()
+            .flatMap(forest -> Mono.justOrEmpty(subTree(forest, targetname))));
+    }
 
-        List<CategoryTreeVo> path = new ArrayList<>();
+    @Override
+    public Mono<CategoryTreeSnapshot> getTreeSnapshot() {
+        return metrics.timed(CATEGORY_FINDER, "getTreeSnapshot",
+            categoryIndex.forest().map(CategoryIndex.Forest::tree));
+    }
 
-        Mono<List<CategoryTreeVo>> listMono = categoryTreeVoFlux.collectList();
-        findPathToTopParent(listMono, targetname, path);
-        Collections.reverse(path);
-        Mono<List<CategoryTreeVo>> just = Mono.just(path);
-        return just;
+    @Override
+    public Mono<CategoryTreeNode> getTreeNode(String name) {
+        return metrics.timed(CATEGORY_FINDER, "getTreeNode", categoryIndex.forest()
+            .flatMap(forest -> Mono.justOrEmpty(forest.tree().get(name))));
     }
 
+    @Override
+    public Mono<String> renderTree(@Nullable String name, @Nullable Integer maxDepth) {
+        int depth = depthNullSafe(maxDepth);
+        return metrics.timed(CATEGORY_FINDER, "renderTree", categoryIndex.forest()
+            .map(CategoryIndex.Forest::tree)
+            .map(tree -> renderedTrees.get(
+                new RenderedTreeKey(tree.getVersion(), StringUtils.defaultString(name), depth),
+                key -> renderTree(tree, name, depth))));
+    }
+
+    static String renderTree(CategoryTreeSnapshot tree, @Nullable String name, int maxDepth) {
+        List<CategoryTreeNode> roots;
+        if (StringUtils.isEmpty(name)) {
+            roots = tree.getRoots();
+        } else {
+            CategoryTreeNode node = tree.get(name);
+            roots = node == null ? List.of() : List.of(node);
+        }
+        StringBuilder text = new StringBuilder();
+        try {
+            TreeRenderer.render(roots, text, maxDepth);
+        } catch (IOException e) {
+            // a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
 
     @Override
     public CategoryTreeVo getTreeByNameChild(String targetname){
-        Flux<CategoryTreeVo> categoryTreeVoFlux = listAll()
-            .collectList()
-            .flatMapIterable(categoryVos -> {
-                Map<String, CategoryTreeVo> nameIdentityMap = categoryVos.stream()
-                    .map(CategoryTreeVo::from)
-                    .collect(Collectors.toMap(categoryVo -> categoryVo.getMetadata().getName(),
-                        Function.identity()));
-
-                nameIdentityMap.forEach((nameKey, value) -> {
-                    List<String> children = value.getSpec().getChildren();
-                    if (children == null) {
-                        return;
-                    }
-                    for (String child : children) {
-                        CategoryTreeVo childNode = nameIdentityMap.get(child);
-                        if (childNode != null) {
-                            childNode.setParentName(nameKey);
-                        }
-                    }
-                });
-                return listToTree(nameIdentityMap.values(), null);
-            });
-
+        return metrics.timed(CATEGORY_FINDER, "getTreeByNameChild", () -> {
+            CategoryIndex.Forest forest = categoryIndex.currentOrNull();
+            if (forest != null && postCounts.isReady()) {
+                return subTree(forest, targetname);
+            }
+            if (!Schedulers.isInNonBlockingThread()) {
+                return subTree(countedForest().block(), targetname);
+            }
+            // the indexes load at startup, retry in case that load failed
+            countedForest().subscribe(null,
+                e -> log.warn("Failed to load the category tree in the background.", e));
+            // blocking is not allowed on this thread, so serve what is loaded so far: no tree
+            // before the categories, and no total post counts before the posts
+            return forest == null ? null : subTree(forest, targetname);
+        });
+    }
 
-        List<CategoryTreeVo> path = new ArrayList<>();
+    CategoryTreeVo subTree(CategoryIndex.Forest forest, String targetName) {
+        if (!forest.contains(targetName)) {
+            return null;
+        }
+        return toTreeVo(forest, targetName);
+    }
 
-        Mono<List<CategoryTreeVo>> listMono = categoryTreeVoFlux.collectList();
-        findPathToTopParent(listMono, targetname, path);
+    /**
+     * Resolves the path from the top parent down to the target by following parent links
+     * upwards, so finding the path costs O(depth) instead of searching the whole tree.
+     * <p>
+     * Each node of the path keeps its children, so the subtree of the top parent is copied
+     * once and the path nodes are picked from that copy.
+     *
+     * @param forest the current category forest
+     * @param targetName the name of the target category
+     * @return tree nodes from the top parent to the target, or an empty list if not found
+     */
+    List<CategoryTreeVo> pathToTopParent(CategoryIndex.Forest forest, String targetName) {
+        if (!forest.contains(targetName)) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        String current = targetName;
+        while (current != null && names.size() <= forest.size()) {
+            names.add(current);
+            current = forest.parentOf(current);
+        }
+        Collections.reverse(names);
+
+        // materialize the top parent once and descend along the resolved names
+        List<CategoryTreeVo> path = new ArrayList<>(names.size());
+        CategoryTreeVo node = toTreeVo(forest, names.get(0));
+        path.add(node);
+        for (int i = 1; i < names.size() && node != null; i++) {
+            node = findChild(node, names.get(i));
+            if (node != null) {
+                path.add(node);
+            }
+        }
+        return path;
+    }
 
-        for(CategoryTreeVo p:path){
-            if(p.getMetadata().getName().equals(targetname)){
-                return p;
+    private static CategoryTreeVo findChild(CategoryTreeVo node, String name) {
+        for (CategoryTreeVo child : node.getChildren()) {
+            if (child.getMetadata().getName().equals(name)) {
+                return child;
             }
         }
         return null;
     }
 
-    static boolean findPathToTopParent(Mono<List<CategoryTreeVo>> monoList,String targetName, List<CategoryTreeVo> path) {
-        return monoList.flatMapMany(Flux::fromIterable)
-            .filter(node -> node.getMetadata().getName().equals(targetName)  || findPathToTopParent(Mono.just(node.getChildren()), targetName, path))
-            .doOnNext(node -> path.add(node))
-            .hasElements()
-            .block();
+    Flux<CategoryTreeVo> tomyCategoryTreeVoFlux(String name, int maxDepth) {
+        return countedForest()
+            .flatMapIterable(forest -> forestToTree(forest, name, maxDepth));
     }
 
+    /**
+     * Materializes tree value objects from the shared category index.
+     *
+     * @param forest the current category forest
+     * @param name the name of the subtree root, or all root categories if empty
+     * @param maxDepth number of levels below each root, or {@link TreeRenderer#UNLIMITED}
+     * @return the requested trees sorted by {@link CategoryIndex#defaultTreeNodeComparator()}
+     */
+    List<CategoryTreeVo> forestToTree(CategoryIndex.Forest forest, String name, int maxDepth) {
+        if (StringUtils.isEmpty(name)) {
+            List<CategoryTreeVo> roots = new ArrayList<>(forest.roots().size());
+            for (String root : forest.roots()) {
+                roots.add(toTreeVo(forest, root, maxDepth));
+            }
+            return roots;
+        }
+        if (!forest.contains(name)) {
+            return List.of();
+        }
+        return List.of(toTreeVo(forest, name, maxDepth));
+    }
 
-    Flux<CategoryTreeVo> tomyCategoryTreeVoFlux(String name) {
-        return listAll()
-            .collectList()
-            .flatMapIterable(myCategoryVos -> {
-                Map<String, CategoryTreeVo> nameIdentityMap = myCategoryVos.stream()
-                    .map(CategoryTreeVo::from)
-                    .collect(Collectors.toMap(myCategoryVo -> myCategoryVo.getMetadata().getName(),
-                        Function.identity()));
-
-                nameIdentityMap.forEach((nameKey, value) -> {
-                    List<String> children = value.getSpec().getChildren();
-                    if (children == null) {
-                        return;
-                    }
-                    for (String child : children) {
-                        CategoryTreeVo childNode = nameIdentityMap.get(child);
-                        if (childNode != null) {
-                            childNode.setParentName(nameKey);
-                        }
-                    }
-                });
-                return listToTree(nameIdentityMap.values(), name);
-            });
-    }
-    static List<CategoryTreeVo> listToMyTree(Collection<CategoryTreeVo> list, String name) {
-        Map<String, List<CategoryTreeVo>> parentNameIdentityMap = list.stream()
-            .filter(CategoryTreeVo -> CategoryTreeVo.getParentName() != null)
-            .collect(Collectors.groupingBy(CategoryTreeVo::getParentName));
-
-        list.forEach(node -> {
-            // sort children
-            List<CategoryTreeVo> children =
-                parentNameIdentityMap.getOrDefault(node.getMetadata().getName(), List.of())
-                    .stream()
-                    .sorted(defaultTreeNodeComparator())
-                    .toList();
-            node.setChildren(children);
-        });
-        List<CategoryTreeVo> res = list.stream()
-            .filter(v -> StringUtils.isEmpty(null) ? v.getParentName() == null
-                : StringUtils.equals(v.getMetadata().getName(), null))
-            .sorted(defaultTreeNodeComparator())
-            .collect(Collectors.toList());
+    /**
+     * Gets the current category forest once all visible posts are counted, so that tree value
+     * objects can carry descendant-inclusive post counts.
+     */
+    private Mono<CategoryIndex.Forest> countedForest() {
+        return categoryIndex.forest()
+            .flatMap(forest -> postCounts.ready().thenReturn(forest));
+    }
 
-        String parentName = getParentName(res, null, name,0);
-        List<CategoryTreeVo> result = res.stream()
-            .filter(tmp -> tmp.getMetadata().getName().equals(parentName))
-            .collect(Collectors.toList());
-        return result;
+    /**
+     * Copies a subtree of the shared tree snapshot into mutable value objects, leaving the
+     * total post counts null while the posts are not counted yet.
+     */
+    CategoryTreeVo toTreeVo(CategoryIndex.Forest forest, String name) {
+        CategoryTreeNode node = forest.tree().get(name);
+        if (node == null) {
+            return null;
+        }
+        ToIntFunction<String> totals =
+            postCounts.isReady() ? postCounts.countsOf(forest)::totalOf : null;
+        return node.toTreeVo(totals);
     }
 
+    /**
+     * Copies the given number of levels of a subtree into mutable value objects.
+     * <p>
+     * Limited copies are taken level by level from the parent links of the forest, so they
+     * neither build nor walk the whole tree. Nodes on the last level have no children but
+     * keep their child count, so their children can be fetched later by
+     * {@link #listChildren(String, Integer)}.
+     *
+     * @param maxDepth number of levels below the node, or {@link TreeRenderer#UNLIMITED}
+     */
+    CategoryTreeVo toTreeVo(CategoryIndex.Forest forest, String name, int maxDepth) {
+        if (maxDepth == TreeRenderer.UNLIMITED || maxDepth >= forest.size()) {
+            return toTreeVo(forest, name);
+        }
+        if (!forest.contains(name)) {
+            return null;
+        }
+        ToIntFunction<String> totals = postCounts.countsOf(forest)::totalOf;
+        CategoryTreeVo root = levelNode(forest, totals, name);
+        List<CategoryTreeVo> level = List.of(root);
+        for (int depth = 0; depth < maxDepth && !level.isEmpty(); depth++) {
+            List<CategoryTreeVo> nextLevel = new ArrayList<>();
+            for (CategoryTreeVo node : level) {
+                List<String> childNames = forest.childrenOf(node.getMetadata().getName());
+                List<CategoryTreeVo> children = new ArrayList<>(childNames.size());
+                for (String child : childNames) {
+                    children.add(levelNode(forest, totals, child));
+                }
+                node.setChildren(children);
+                nextLevel.addAll(children);
+            }
+            level = nextLevel;
+        }
+        return root;
+    }
 
-    
-    static String getParentName(List<CategoryTreeVo>lists,String parentName,String aim,int deep){
+    private static CategoryTreeVo levelNode(CategoryIndex.Forest forest,
+        ToIntFunction<String> totals, String name) {
+        CategoryTreeVo node = CategoryTreeVo.from(forest.get(name));
+        node.setParentName(forest.parentOf(name));
+        node.setChildCount(forest.childrenOf(name).size());
+        node.setTotalPostCount(totals.applyAsInt(name));
+        return node;
+    }
 
-        for (CategoryTreeVo element : lists) {
-            if (deep == 0) {
-                parentName = element.getMetadata().getName();
-            }
-            if (aim.equals(element.getMetadata().getName())) {
-                return parentName;
-            }
-            String name = getParentName(element.getChildren(), parentName, aim, deep + 1);
-            if (name != null) {
-                return name;
+    static String topParentName(CategoryIndex.Forest forest, String name) {
+        if (!forest.contains(name)) {
+            return null;
+        }
+        String current = name;
+        // bounded by the forest size to guard against cyclic parent links
+        for (int i = 0; i < forest.size(); i++) {
+            String parent = forest.parentOf(current);
+            if (parent == null) {
+                return current;
             }
+            current = parent;
         }
         return null;
     }
+
     @Override
      public void traverse(CategoryTreeVo node, List<String> result) {
         if (node == null) {
@@ -278,39 +440,6 @@ public class MyCategoryFinderImpl implements MyCategoryFinder {
             }
         }
     }
-    static List<CategoryTreeVo> listToTree(Collection<CategoryTreeVo> list, String name) {
-        Map<String, List<CategoryTreeVo>> parentNameIdentityMap = list.stream()
-            .filter(CategoryTreeVo -> CategoryTreeVo.getParentName() != null)
-            .collect(Collectors.groupingBy(CategoryTreeVo::getParentName));
-
-        list.forEach(node -> {
-            // sort children
-            List<CategoryTreeVo> children =
-                parentNameIdentityMap.getOrDefault(node.getMetadata().getName(), List.of())
-                    .stream()
-                    .sorted(defaultTreeNodeComparator())
-                    .toList();
-            node.setChildren(children);
-        });
-        return list.stream()
-            .filter(v -> StringUtils.isEmpty(name) ? v.getParentName() == null
-                : StringUtils.equals(v.getMetadata().getName(), name))
-            .sorted(defaultTreeNodeComparator())
-            .collect(Collectors.toList());
-    }
-
-    static Comparator<CategoryTreeVo> defaultTreeNodeComparator() {
-        Function<CategoryTreeVo, Integer> priority =
-            category -> Objects.requireNonNullElse(category.getSpec().getPriority(), 0);
-        Function<CategoryTreeVo, Instant> creationTimestamp =
-            category -> category.getMetadata().getCreationTimestamp();
-        Function<CategoryTreeVo, String> name =
-            category -> category.getMetadata().getName();
-        return Comparator.comparing(priority)
-            .thenComparing(creationTimestamp)
-            .thenComparing(name);
-    }
-
     static Comparator<Category> defaultComparator() {
         Function<Category, Integer> priority =
             category -> Objects.requireNonNullElse(category.getSpec().getPriority(), 0);
@@ -332,4 +461,11 @@ public class MyCategoryFinderImpl implements MyCategoryFinder {
     int sizeNullSafe(Integer page) {
         return ObjectUtils.defaultIfNull(page, 10);
     }
+
+    int depthNullSafe(Integer maxDepth) {
+        return maxDepth == null || maxDepth < 0 ? TreeRenderer.UNLIMITED : maxDepth;
+    }
+
+    private record RenderedTreeKey(long version, String name, int maxDepth) {
+    }
 }
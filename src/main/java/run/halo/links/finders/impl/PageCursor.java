@@ -0,0 +1,168 @@
+package run.halo.links.finders.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.Nullable;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.Metadata;
+import run.halo.links.vo.CategoryVo;
+
+/**
+ * <p>Encodes the sort key of the last item of a page into an opaque cursor and back.</p>
+ * <p>Post cursors hold the {@link PostFinderImpl#defaultComparator()} tuple of pinned,
+ * priority, publish time and name, category cursors hold the
+ * {@link MyCategoryFinderImpl#defaultComparator()} tuple of priority, creation timestamp and
+ * name. Decoding yields a probe object carrying only those fields, which is compared against
+ * the sorted index to seek to the next page.</p>
+ *
+ * @since 2.0.0
+ */
+final class PageCursor {
+    private static final String POST_PREFIX = "p";
+
+    private static final String CATEGORY_PREFIX = "c";
+
+    private static final String SEPARATOR = "|";
+
+    private static final String NULL = "-";
+
+    private PageCursor() {
+    }
+
+    static String encode(Post post) {
+        Post.PostSpec spec = post.getSpec();
+        return encode(POST_PREFIX,
+            Boolean.TRUE.equals(spec.getPinned()) ? "1" : "0",
+            String.valueOf(Objects.requireNonNullElse(spec.getPriority(), 0)),
+            instant(spec.getPublishTime()),
+            post.getMetadata().getName());
+    }
+
+    static String encode(CategoryVo category) {
+        return encode(CATEGORY_PREFIX,
+            String.valueOf(Objects.requireNonNullElse(category.getSpec().getPriority(), 0)),
+            instant(category.getMetadata().getCreationTimestamp()),
+            category.getMetadata().getName());
+    }
+
+    /**
+     * Decodes a post cursor.
+     *
+     * @param cursor cursor from a previous page
+     * @return a probe post to seek after, or null to start from the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Nullable
+    static Post decodePost(@Nullable String cursor) {
+        String[] parts = decode(cursor, POST_PREFIX, 5);
+        if (parts == null) {
+            return null;
+        }
+        Post post = new Post();
+        post.setMetadata(metadata(parts[4], null));
+        Post.PostSpec spec = new Post.PostSpec();
+        spec.setPinned("1".equals(parts[1]));
+        spec.setPriority(parseInt(parts[2], cursor));
+        spec.setPublishTime(parseInstant(parts[3], cursor));
+        post.setSpec(spec);
+        return post;
+    }
+
+    /**
+     * Decodes a category cursor.
+     *
+     * @param cursor cursor from a previous page
+     * @return a probe category to seek after, or null to start from the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Nullable
+    static CategoryVo decodeCategory(@Nullable String cursor) {
+        String[] parts = decode(cursor, CATEGORY_PREFIX, 4);
+        if (parts == null) {
+            return null;
+        }
+        Category.CategorySpec spec = new Category.CategorySpec();
+        spec.setPriority(parseInt(parts[1], cursor));
+        return CategoryVo.builder()
+            .metadata(metadata(parts[3], parseRequiredInstant(parts[2], cursor)))
+            .spec(spec)
+            .build();
+    }
+
+    private static String encode(String... parts) {
+        byte[] bytes = String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String[] decode(String cursor, String prefix, int size) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+        // the name comes last and is kept whole
+        String[] parts = decoded.split("\\|", size);
+        if (parts.length != size || !prefix.equals(parts[0])) {
+            throw invalid(cursor);
+        }
+        return parts;
+    }
+
+    private static String instant(Instant instant) {
+        if (instant == null) {
+            return NULL;
+        }
+        return instant.getEpochSecond() + "." + instant.getNano();
+    }
+
+    private static Instant parseInstant(String value, String cursor) {
+        if (NULL.equals(value)) {
+            return null;
+        }
+        int dot = value.indexOf('.');
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(value.substring(0, dot)),
+                Long.parseLong(value.substring(dot + 1)));
+        } catch (RuntimeException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    /**
+     * Parses an instant that the comparator of the cursor does not accept as null.
+     */
+    private static Instant parseRequiredInstant(String value, String cursor) {
+        Instant instant = parseInstant(value, cursor);
+        if (instant == null) {
+            throw invalid(cursor);
+        }
+        return instant;
+    }
+
+    private static int parseInt(String value, String cursor) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static Metadata metadata(String name, Instant creationTimestamp) {
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setCreationTimestamp(creationTimestamp);
+        return metadata;
+    }
+
+    private static IllegalArgumentException invalid(String cursor) {
+        return new IllegalArgumentException(String.format("The cursor [%s] is invalid.", cursor));
+    }
+}
@@ -2,14 +2,14 @@ package run.halo.links.finders.impl;
 
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.AllArgsConstructor;
@@ -21,25 +21,27 @@ import org.springframework.util.Assert;
 import org.springframework.util.comparator.Comparators;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import run.halo.app.core.extension.Counter;
+import reactor.core.scheduler.Schedulers;
 import run.halo.app.core.extension.content.Post;
 import run.halo.app.core.extension.content.Snapshot;
 import run.halo.app.extension.ListResult;
-import run.halo.app.extension.MetadataUtil;
 import run.halo.app.extension.ReactiveExtensionClient;
 
 import run.halo.app.theme.finders.Finder;
-import run.halo.app.metrics.MeterUtils;
 import run.halo.links.ContentWrapper;
-import run.halo.links.MyCategoryFinder;
 import run.halo.links.MyPostFinder;
+import run.halo.links.PostProjection;
+import run.halo.links.WeightedLruCache;
 // import run.halo.links.MyPostPublicQueryService;
-import run.halo.links.vo.CategoryTreeVo;
 import run.halo.links.vo.ContentVo;
+import run.halo.links.vo.MyCursorListResult;
 import run.halo.links.vo.MyListedPostVo;
+import run.halo.links.vo.MyNavigationPostVo;
 import run.halo.links.vo.MyPostVo;
 import run.halo.links.vo.MyStatsVo;
 
+import static run.halo.links.finders.impl.FinderMetrics.POST_FINDER;
+
 /**
  * A finder for {@link Post}.
  *
@@ -49,66 +51,130 @@ import run.halo.links.vo.MyStatsVo;
 @Finder("mypostFinder")
 @AllArgsConstructor
 public class PostFinderImpl implements MyPostFinder {
-    private final MyCategoryFinder categoryFinder;
+    /**
+     * Compiled annotation key patterns, as templates reuse a handful of them on every page.
+     */
+    private static final WeightedLruCache<String, Pattern> PATTERN_CACHE =
+        new WeightedLruCache<>(256, pattern -> 1);
+
+    private static final int STATS_BATCH_SIZE = 100;
 
     private final ReactiveExtensionClient client;
 
+    private final CategoryIndex categoryIndex;
+
+    private final PostIndex postIndex;
+
+    private final PostStatsLoader statsLoader;
+
+    private final ContentMaterializer contentMaterializer;
+
+    private final FinderMetrics metrics;
 
     @Override
     public Mono<MyPostVo> getByName(String postName) {
-        System.out.println("eeeeeeeeeeeeeeeeeeeeeeeeeeeee");
-        return client.get(Post.class, postName)
-            .map(MyPostVo::from)
-            .flatMap(postVo -> {
-                System.out.println(
-                    "flatMapflatMapflatMapflatMap:postVo = " + postVo.getMetadata2());
-
-                Mono<MyPostVo> myPostVoMono = content(postName)
-                    .doOnNext(postVo::setContent)
-                    .thenReturn(postVo);
-                return myPostVoMono;
-            });
+        return RenderMemo.memoize(metrics.timed(POST_FINDER, "getByName",
+            client.get(Post.class, postName).flatMap(this::toPostVo)),
+            POST_FINDER, "getByName", postName);
+    }
+
+    private Mono<MyPostVo> toPostVo(Post post) {
+        MyPostVo postVo = MyPostVo.from(post);
+        return content(post)
+            .doOnNext(postVo::setContent)
+            .thenReturn(postVo);
+    }
+
+    @Override
+    public Mono<MyNavigationPostVo> cursor(String postName) {
+        return cursor(postName, null);
+    }
 
+    @Override
+    public Mono<MyNavigationPostVo> cursor(String postName, @Nullable String categoryName) {
+        Mono<Optional<Set<String>>> scope = StringUtils.isBlank(categoryName)
+            ? Mono.just(Optional.empty())
+            : categoryIndex.forest()
+                .map(forest -> Optional.of(forest.descendantsOf(categoryName)));
+        return RenderMemo.memoize(metrics.timed(POST_FINDER, "cursor",
+            client.get(Post.class, postName)
+                .flatMap(post -> Mono.zip(toPostVo(post),
+                    scope.flatMap(names -> postIndex.neighbours(post, names.orElse(null)))))
+                .map(tuple -> {
+                    PostIndex.Neighbours neighbours = tuple.getT2();
+                    return MyNavigationPostVo.builder()
+                        .previous(neighbours.previous() == null ? null
+                            : MyPostVo.from(neighbours.previous()))
+                        .current(tuple.getT1())
+                        .next(neighbours.next() == null ? null
+                            : MyPostVo.from(neighbours.next()))
+                        .build();
+                })),
+            POST_FINDER, "cursor", postName, categoryName);
     }
 
     @Override
     public Map<String,String> getAnnotationsByArticle(String name, String patternString) {
-        MyPostVo obj = this.getByName(name).block();
+        return metrics.timed(POST_FINDER, "getAnnotationsByArticle", () -> {
+            Post indexed = postIndex.getIfPresent(name);
+            if (indexed != null) {
+                return filterAnnotations(indexed, patternString);
+            }
+            if (Schedulers.isInNonBlockingThread()) {
+                // only visible posts are indexed, others can not be fetched without blocking
+                return Map.of();
+            }
+            return fetchAnnotations(name, patternString).block();
+        });
+    }
+
+    @Override
+    public Mono<Map<String, String>> listAnnotationsByArticle(String name,
+        String patternString) {
+        // looked up on subscription, so a resubscribed or memoized mono reads the current post
+        Mono<Map<String, String>> annotations = Mono.defer(() -> {
+            Post indexed = postIndex.getIfPresent(name);
+            return indexed != null ? Mono.just(filterAnnotations(indexed, patternString))
+                : fetchAnnotations(name, patternString);
+        });
+        return metrics.timed(POST_FINDER, "listAnnotationsByArticle", annotations);
+    }
+
+    private Mono<Map<String, String>> fetchAnnotations(String name, String patternString) {
+        return client.fetch(Post.class, name)
+            .map(post -> filterAnnotations(post, patternString))
+            .defaultIfEmpty(Map.of());
+    }
+
+    private Map<String, String> filterAnnotations(Post post, String patternString) {
+        Map<String, String> annotations = post.getMetadata().getAnnotations();
+        if (annotations == null || annotations.isEmpty()) {
+            return Map.of();
+        }
+        Pattern pattern = PATTERN_CACHE.get(patternString, Pattern::compile);
         Map<String, String> result = new HashMap<>();
-        Map<String, String> annotations = obj.getMetadata().getAnnotations();
-        for (String key : annotations.keySet()) {
-            Pattern pattern = Pattern.compile(patternString);
+        annotations.forEach((key, value) -> {
             Matcher matcher = pattern.matcher(key);
             if (matcher.find()) {
-                result.put(key, annotations.get(key));
+                result.put(key, value);
             }
-        }
+        });
         return result;
     }
-    private boolean contains(List<String> c, List<String> keys) {
-        if(c == null){
-            return false;
-        }
-        for(String key:keys) {
-            if (StringUtils.isBlank(key)) {
-                continue;
-            }
-            if (c.contains(key)){
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private <T extends MyListedPostVo> Mono<MyStatsVo> populateStats(T postVo) {
-        return
-            client.fetch(Counter.class, MeterUtils.nameOf(Post.class, postVo.getMetadata().getName())).map(counter -> MyStatsVo.builder()
-                .visit(counter.getVisit())
-                .upvote(counter.getUpvote())
-                .comment(counter.getApprovedComment())
-                .build()
-            ).defaultIfEmpty(MyStatsVo.empty());
 
+    private <T extends MyListedPostVo> Mono<List<T>> populateStats(List<T> postVos) {
+        if (postVos.isEmpty()) {
+            return Mono.just(postVos);
+        }
+        List<String> postNames = postVos.stream()
+            .map(postVo -> postVo.getMetadata().getName())
+            .toList();
+        return statsLoader.load(postNames)
+            .map(stats -> {
+                postVos.forEach(postVo -> postVo.setStats(
+                    stats.getOrDefault(postVo.getMetadata().getName(), MyStatsVo.empty())));
+                return postVos;
+            });
     }
 
     int pageNullSafe(Integer page) {
@@ -118,63 +184,89 @@ public class PostFinderImpl implements MyPostFinder {
     int sizeNullSafe(Integer size) {
         return ObjectUtils.defaultIfNull(size, 10);
     }
+    @Override
+    public Mono<ListResult<MyListedPostVo>> list(@Nullable Integer page, @Nullable Integer size) {
+        return RenderMemo.memoize(metrics.timed(POST_FINDER, "list",
+            postIndex.list(pageNullSafe(page), sizeNullSafe(size))
+                .doOnNext(list -> metrics.rows(POST_FINDER, "list", list.getTotal(),
+                    list.getItems().size()))
+                .flatMap(this::toListedPostVos)
+                .defaultIfEmpty(new ListResult<>(page, size, 0L, List.of()))),
+            POST_FINDER, "list", page, size);
+    }
+
     @Override
     public Mono<ListResult<MyListedPostVo>> listByCategoryAndChildren(@Nullable Integer page,
         @Nullable Integer size,
         String categoryName){
-        CategoryTreeVo categoryTreeVo = categoryFinder.getTreeByNameChild(categoryName);
-
-        List<String> result = new ArrayList<>();
-        categoryFinder.traverse(categoryTreeVo,result);
-        System.out.println("yslhhhresult = " + result);
-        Comparator<Post> comparator =  defaultComparator();
-        Predicate<Post> postPredicate = post -> contains(post.getSpec().getCategories(), result);
-        Predicate<Post> FIXED_PREDICATE = post -> post.isPublished()
-            && Objects.equals(false, post.getSpec().getDeleted())
-            && Post.VisibleEnum.PUBLIC.equals(post.getSpec().getVisible());
-
-        Predicate<Post> predicate = FIXED_PREDICATE
-            .and(postPredicate == null ? post -> true : postPredicate);
-
-        return client.list(Post.class, predicate,
-                comparator, pageNullSafe(page), sizeNullSafe(size))
-            .flatMap(list -> Flux.fromStream(list.get())
-                .concatMap(post -> convertToListedPostVo(post)
-                    .flatMap(postVo -> populateStats(postVo)
-                        .doOnNext(postVo::setStats).thenReturn(postVo)
-                    )
-                )
-                .collectList()
-                .map(postVos -> new ListResult<>(list.getPage(), list.getSize(), list.getTotal(),
-                    postVos)
-                )
-            )
-            .defaultIfEmpty(new ListResult<>(page, size, 0L, List.of()));
+        return listByCategoryAndChildren(page, size, categoryName, null);
+    }
+
+    @Override
+    public Mono<ListResult<MyListedPostVo>> listByCategoryAndChildren(@Nullable Integer page,
+        @Nullable Integer size, String categoryName, @Nullable String projection) {
+        PostProjection postProjection = PostProjection.from(projection);
+        return RenderMemo.memoize(metrics.timed(POST_FINDER, "listByCategoryAndChildren",
+            categoryIndex.forest()
+                .map(forest -> forest.descendantsOf(categoryName))
+                .flatMap(categoryNames -> postIndex.list(categoryNames,
+                    pageNullSafe(page), sizeNullSafe(size)))
+                .doOnNext(list -> metrics.rows(POST_FINDER, "listByCategoryAndChildren",
+                    list.getTotal(), list.getItems().size()))
+                .flatMap(list -> toListedPostVos(list, postProjection))
+                .defaultIfEmpty(new ListResult<>(page, size, 0L, List.of()))),
+            POST_FINDER, "listByCategoryAndChildren", page, size, categoryName,
+            postProjection);
+    }
+
+    private Mono<ListResult<MyListedPostVo>> toListedPostVos(ListResult<Post> list) {
+        return toListedPostVos(list, PostProjection.FULL);
+    }
+
+    private Mono<ListResult<MyListedPostVo>> toListedPostVos(ListResult<Post> list,
+        PostProjection projection) {
+        return Flux.fromIterable(list.getItems())
+            .concatMap(post -> convertToListedPostVo(post, projection))
+            .collectList()
+            .flatMap(this::populateStats)
+            .map(postVos -> new ListResult<>(list.getPage(), list.getSize(), list.getTotal(),
+                postVos)
+            );
     }
 
 
+    @Override
+    public Mono<MyCursorListResult<MyListedPostVo>> listByCategoryAndChildrenByCursor(
+        @Nullable String cursor, @Nullable Integer size, String categoryName) {
+        int limit = Math.max(sizeNullSafe(size), 0);
+        return metrics.timed(POST_FINDER, "listByCategoryAndChildrenByCursor",
+            categoryIndex.forest()
+                .flatMap(forest -> postIndex.seek(forest.descendantsOf(categoryName),
+                    PageCursor.decodePost(cursor), limit + 1))
+                .flatMap(posts -> {
+                    boolean hasNext = posts.size() > limit;
+                    List<Post> items = hasNext ? posts.subList(0, limit) : posts;
+                    metrics.returned(POST_FINDER, "listByCategoryAndChildrenByCursor",
+                        items.size());
+                    String nextCursor = hasNext && !items.isEmpty()
+                        ? PageCursor.encode(items.get(items.size() - 1)) : null;
+                    return Flux.fromIterable(items)
+                        .concatMap(this::convertToListedPostVo)
+                        .collectList()
+                        .flatMap(this::populateStats)
+                        .map(postVos -> MyCursorListResult.<MyListedPostVo>builder()
+                            .items(postVos)
+                            .nextCursor(nextCursor)
+                            .build());
+                }));
+    }
+
     protected void checkBaseSnapshot(Snapshot snapshot) {
-        Assert.notNull(snapshot, "The snapshot must not be null.");
-        String keepRawAnno =
-            MetadataUtil.nullSafeAnnotations(snapshot).get(Snapshot.KEEP_RAW_ANNO);
-        if (!org.thymeleaf.util.StringUtils.equals(Boolean.TRUE.toString(), keepRawAnno)) {
-            throw new IllegalArgumentException(
-                String.format("The snapshot [%s] is not a base snapshot.",
-                    snapshot.getMetadata().getName()));
-        }
+        ContentMaterializer.checkBaseSnapshot(snapshot);
     }
 
     public Mono<ContentWrapper> getContent(String snapshotName, String baseSnapshotName) {
-        return client.fetch(Snapshot.class, baseSnapshotName)
-            .doOnNext(this::checkBaseSnapshot)
-            .flatMap(baseSnapshot -> {
-                if (StringUtils.equals(snapshotName, baseSnapshotName)) {
-                    var contentWrapper = ContentWrapper.patchSnapshot(baseSnapshot, baseSnapshot);
-                    return Mono.just(contentWrapper);
-                }
-                return client.fetch(Snapshot.class, snapshotName)
-                    .map(snapshot -> ContentWrapper.patchSnapshot(snapshot, baseSnapshot));
-            });
+        return contentMaterializer.getContent(snapshotName, baseSnapshotName);
     }
 
 
@@ -189,9 +281,20 @@ public class PostFinderImpl implements MyPostFinder {
 
     // @Override
     public Mono<ContentVo> content(String postName) {
-        return this.getReleaseContent(postName)
-            .map(wrapper -> ContentVo.builder().content(wrapper.getContent())
-                .raw(wrapper.getRaw()).build());
+        return client.get(Post.class, postName)
+            .flatMap(this::content);
+    }
+
+    /**
+     * Gets the released content of the post, which is usually materialized when the post was
+     * released and is only rendered here if it is no longer cached.
+     */
+    Mono<ContentVo> content(Post post) {
+        String releaseSnapshot = post.getSpec().getReleaseSnapshot();
+        if (StringUtils.isBlank(releaseSnapshot)) {
+            return Mono.empty();
+        }
+        return contentMaterializer.materialize(releaseSnapshot, post.getSpec().getBaseSnapshot());
     }
 
 
@@ -204,7 +307,14 @@ public class PostFinderImpl implements MyPostFinder {
     }
 
     public Mono<MyListedPostVo> convertToListedPostVo(@NonNull Post post) {
+        return convertToListedPostVo(post, PostProjection.FULL);
+    }
+
+    Mono<MyListedPostVo> convertToListedPostVo(@NonNull Post post, PostProjection projection) {
         Assert.notNull(post, "Post must not be null");
+        if (projection == PostProjection.SLIM) {
+            return Mono.just(MyListedPostVo.slim(post));
+        }
         MyListedPostVo postVo = MyListedPostVo.from(post);
         postVo.setCategories(List.of());
         postVo.setTags(List.of());
@@ -216,15 +326,24 @@ public class PostFinderImpl implements MyPostFinder {
 
     @Override
     public Flux<MyListedPostVo> listAll() {
+        return listAll(null);
+    }
 
-
-        var list = client.list(Post.class, post -> post.isPublished()
-                    && Objects.equals(false, post.getSpec().getDeleted())
-                    && Post.VisibleEnum.PUBLIC.equals(post.getSpec().getVisible())
-
-                , defaultComparator())
-            .concatMap(this::convertToListedPostVo);
-        return list;
+    @Override
+    public Flux<MyListedPostVo> listAll(@Nullable String projection) {
+        PostProjection postProjection = PostProjection.from(projection);
+        // the post index holds the visible posts in default order, so nothing is scanned
+        Flux<MyListedPostVo> list = postIndex.list(1, 0)
+            .flatMapIterable(ListResult::getItems)
+            .concatMap(post -> convertToListedPostVo(post, postProjection));
+        if (postProjection == PostProjection.SLIM) {
+            // stats are part of the slim projection, load them for a batch of posts at once
+            list = list.buffer(STATS_BATCH_SIZE)
+                .concatMap(this::populateStats)
+                .flatMapIterable(postVos -> postVos);
+        }
+        return RenderMemo.memoize(metrics.timed(POST_FINDER, "listAll", list),
+            POST_FINDER, "listAll", postProjection);
     }
 
 
@@ -0,0 +1,450 @@
+package run.halo.links.finders.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.MyPostPublicQueryService;
+
+/**
+ * <p>An inverted index from category name to the published, public and non-deleted
+ * {@link Post}s in that category.</p>
+ * <p>Each posting list is an immutable array kept in {@link PostFinderImpl#defaultComparator()}
+ * order and replaced copy-on-write when a post changes, so readers never lock. Category pages
+ * are served by merging the posting lists of a category and its descendants. All visible
+ * posts are kept in one more such array, which serves the home page and post navigation.</p>
+ *
+ * @since 2.0.0
+ */
+@Slf4j
+@Component
+public class PostIndex implements InitializingBean, DisposableBean {
+    private static final Post[] EMPTY = new Post[0];
+
+    private final Comparator<Post> comparator = PostFinderImpl.defaultComparator();
+
+    private final ReactiveExtensionClient client;
+
+    private final Map<String, Post> posts = new ConcurrentHashMap<>();
+
+    private final Map<String, Post[]> postingLists = new ConcurrentHashMap<>();
+
+    private volatile Post[] ordered = EMPTY;
+
+    private final AtomicReference<Mono<Void>> loader = new AtomicReference<>();
+
+    private final IndexWatcher<Post> watcher =
+        new IndexWatcher<>(Post.class, this::upsert, this::remove);
+
+    /**
+     * Names of posts deleted or hidden while the initial listing is loaded, so that a listed
+     * copy does not bring them back.
+     */
+    private final Set<String> tombstones = ConcurrentHashMap.newKeySet();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean loaded;
+
+    public PostIndex(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        client.watch(watcher);
+        // load eagerly so that the category post counts are ready for the first renders
+        ready().subscribe(null, e -> {
+            // logged by ready, the next reader retries
+        });
+    }
+
+    @Override
+    public void destroy() {
+        watcher.dispose();
+    }
+
+    /**
+     * Lists visible posts in any of the given categories, ordered by
+     * {@link PostFinderImpl#defaultComparator()}.
+     *
+     * @param categoryNames category names whose posting lists are merged
+     * @param page page number, starting from 1
+     * @param size page size, or all posts if less than 1
+     * @return a page of posts with the number of distinct matches as total
+     */
+    public Mono<ListResult<Post>> list(Set<String> categoryNames, int page, int size) {
+        return ready().then(Mono.fromSupplier(() -> page(categoryNames, page, size)));
+    }
+
+    /**
+     * Gets an indexed post without triggering a load.
+     *
+     * @param name post name
+     * @return the published, public and non-deleted post, or null if not indexed
+     */
+    @Nullable
+    public Post getIfPresent(String name) {
+        return name == null ? null : posts.get(name);
+    }
+
+    /**
+     * Gets the number of indexed posts.
+     */
+    public int size() {
+        return posts.size();
+    }
+
+    /**
+     * Gets the number of categories that have at least one indexed post.
+     */
+    public int categoryCount() {
+        return postingLists.size();
+    }
+
+    /**
+     * Registers a listener that is told about posts entering or leaving the index. Listeners
+     * are called while the index is locked, see {@link #locked(Runnable)}.
+     */
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Runs the action while no post can enter or leave the index.
+     */
+    synchronized void locked(Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Gets the indexed posts, to be iterated inside {@link #locked(Runnable)} for a
+     * consistent view.
+     */
+    Collection<Post> posts() {
+        return Collections.unmodifiableCollection(posts.values());
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    Mono<Void> ready() {
+        if (loaded) {
+            return Mono.empty();
+        }
+        return loader.updateAndGet(existing -> existing != null ? existing
+            : client.list(Post.class, null, null)
+                .collectList()
+                .doOnNext(this::load)
+                .then()
+                .doOnError(e -> {
+                    log.warn("Failed to load posts into the index.", e);
+                    loader.set(null);
+                })
+                .cache());
+    }
+
+    /**
+     * Lists all visible posts, ordered by {@link PostFinderImpl#defaultComparator()}.
+     *
+     * @param page page number, starting from 1
+     * @param size page size, or all posts if less than 1
+     * @return a page of posts with the number of visible posts as total
+     */
+    public Mono<ListResult<Post>> list(int page, int size) {
+        return ready().then(Mono.fromSupplier(() -> {
+            Post[] all = ordered;
+            int from = size < 1 ? 0 : (Math.max(page, 1) - 1) * size;
+            int to = size < 1 ? all.length : Math.min(from + size, all.length);
+            List<Post> items = from >= to ? List.of()
+                : List.copyOf(Arrays.asList(all).subList(from, to));
+            return new ListResult<>(page, size, all.length, items);
+        }));
+    }
+
+    /**
+     * Finds the visible posts right before and after the given post.
+     *
+     * @param post the current post, which does not need to be visible itself
+     * @param categoryNames category names to scope the navigation to, or null for all posts
+     * @return the adjacent posts in {@link PostFinderImpl#defaultComparator()} order
+     */
+    public Mono<Neighbours> neighbours(Post post, @Nullable Set<String> categoryNames) {
+        return ready().then(Mono.fromSupplier(() -> {
+            List<Post[]> lists = categoryNames == null ? Collections.singletonList(ordered)
+                : postingLists(categoryNames);
+            Post previous = null;
+            Post next = null;
+            for (Post[] list : lists) {
+                int index = Arrays.binarySearch(list, post, comparator);
+                int before = index >= 0 ? index - 1 : -index - 2;
+                int after = index >= 0 ? index + 1 : -index - 1;
+                if (before >= 0
+                    && (previous == null || comparator.compare(list[before], previous) > 0)) {
+                    previous = list[before];
+                }
+                if (after < list.length
+                    && (next == null || comparator.compare(list[after], next) < 0)) {
+                    next = list[after];
+                }
+            }
+            return new Neighbours(previous, next);
+        }));
+    }
+
+    /**
+     * Lists visible posts in any of the given categories that sort after the given post,
+     * without counting all matches.
+     *
+     * @param categoryNames category names whose posting lists are merged
+     * @param after the last post of the previous page, or null to start from the first post
+     * @param limit maximum number of posts to return
+     * @return up to limit posts ordered by {@link PostFinderImpl#defaultComparator()}
+     */
+    public Mono<List<Post>> seek(Set<String> categoryNames, @Nullable Post after, int limit) {
+        return ready().then(Mono.fromSupplier(() -> {
+            List<Post[]> lists = postingLists(categoryNames);
+            int[] starts = new int[lists.size()];
+            if (after != null) {
+                for (int i = 0; i < lists.size(); i++) {
+                    int index = Arrays.binarySearch(lists.get(i), after, comparator);
+                    starts[i] = index >= 0 ? index + 1 : -index - 1;
+                }
+            }
+            List<Post> items = new ArrayList<>(Math.min(limit, 64));
+            merge(lists, starts, 0, limit, false, items);
+            return items;
+        }));
+    }
+
+    private List<Post[]> postingLists(Set<String> categoryNames) {
+        List<Post[]> lists = new ArrayList<>(categoryNames.size());
+        for (String categoryName : categoryNames) {
+            Post[] postingList = postingLists.get(categoryName);
+            if (postingList != null && postingList.length > 0) {
+                lists.add(postingList);
+            }
+        }
+        return lists;
+    }
+
+    private ListResult<Post> page(Set<String> categoryNames, int page, int size) {
+        List<Post[]> lists = postingLists(categoryNames);
+        int from = size < 1 ? 0 : (Math.max(page, 1) - 1) * size;
+        int to = size < 1 ? Integer.MAX_VALUE : from + size;
+        if (lists.size() == 1) {
+            Post[] postingList = lists.get(0);
+            List<Post> items = from >= postingList.length ? List.of()
+                : Arrays.asList(postingList).subList(from, Math.min(to, postingList.length));
+            return new ListResult<>(page, size, postingList.length, List.copyOf(items));
+        }
+        List<Post> items = new ArrayList<>(size < 1 ? 16 : size);
+        long total = merge(lists, new int[lists.size()], from, to, true, items);
+        return new ListResult<>(page, size, total, items);
+    }
+
+    /**
+     * K-way merges sorted posting lists from the given start positions, skipping posts that
+     * appear in more than one list and collecting the distinct posts in [from, to).
+     *
+     * @param countAll whether to keep merging after the window to count all distinct posts
+     * @return the number of distinct posts merged
+     */
+    private long merge(List<Post[]> lists, int[] starts, int from, int to, boolean countAll,
+        List<Post> items) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(lists.size(), 1),
+            (a, b) -> comparator.compare(lists.get(a[0])[a[1]], lists.get(b[0])[b[1]]));
+        for (int i = 0; i < lists.size(); i++) {
+            if (starts[i] < lists.get(i).length) {
+                heads.add(new int[] {i, starts[i]});
+            }
+        }
+        Post last = null;
+        long total = 0;
+        while (!heads.isEmpty() && (countAll || total < to)) {
+            int[] head = heads.poll();
+            Post[] postingList = lists.get(head[0]);
+            Post post = postingList[head[1]];
+            if (++head[1] < postingList.length) {
+                heads.add(head);
+            }
+            // equal posts are adjacent in merge order since the comparator breaks ties by name
+            if (last != null && comparator.compare(last, post) == 0) {
+                continue;
+            }
+            last = post;
+            if (total >= from && total < to) {
+                items.add(post);
+            }
+            total++;
+        }
+        return total;
+    }
+
+    private synchronized void upsert(Post post) {
+        String name = post.getMetadata().getName();
+        Post existing = posts.get(name);
+        if (existing != null && isOlder(post, existing)) {
+            return;
+        }
+        if (existing != null) {
+            unlink(existing);
+            posts.remove(name);
+        }
+        if (MyPostPublicQueryService.FIXED_PREDICATE.test(post)) {
+            tombstones.remove(name);
+            posts.put(name, post);
+            link(post);
+        } else if (!loaded) {
+            tombstones.add(name);
+        }
+    }
+
+    private synchronized void remove(Post post) {
+        String name = post.getMetadata().getName();
+        if (!loaded) {
+            tombstones.add(name);
+        }
+        Post existing = posts.remove(name);
+        if (existing != null) {
+            unlink(existing);
+        }
+    }
+
+    /**
+     * Merges the initial listing into the posts watched so far and builds the ordered array
+     * and the posting lists in one pass after a single sort, rather than inserting the posts
+     * one at a time.
+     */
+    private synchronized void load(List<Post> listed) {
+        for (Post post : listed) {
+            String name = post.getMetadata().getName();
+            if (tombstones.contains(name) || !MyPostPublicQueryService.FIXED_PREDICATE.test(post)) {
+                continue;
+            }
+            Post existing = posts.get(name);
+            if (existing != null) {
+                if (isOlder(post, existing)) {
+                    continue;
+                }
+                listeners.forEach(listener -> listener.onUnlinked(existing));
+            }
+            posts.put(name, post);
+            listeners.forEach(listener -> listener.onLinked(post));
+        }
+
+        Post[] all = posts.values().toArray(EMPTY);
+        Arrays.sort(all, comparator);
+        Map<String, List<Post>> lists = new HashMap<>();
+        for (Post post : all) {
+            for (String categoryName : categoriesOf(post)) {
+                lists.computeIfAbsent(categoryName, key -> new ArrayList<>()).add(post);
+            }
+        }
+        // readers wait for the load, so nothing reads the posting lists while they are replaced
+        postingLists.clear();
+        lists.forEach((categoryName, list) -> postingLists.put(categoryName, list.toArray(EMPTY)));
+        ordered = all;
+        tombstones.clear();
+        loaded = true;
+    }
+
+    private void link(Post post) {
+        listeners.forEach(listener -> listener.onLinked(post));
+        ordered = insert(ordered, post);
+        for (String categoryName : categoriesOf(post)) {
+            postingLists.compute(categoryName, (key, postingList) ->
+                insert(postingList == null ? EMPTY : postingList, post));
+        }
+    }
+
+    private void unlink(Post post) {
+        listeners.forEach(listener -> listener.onUnlinked(post));
+        Post[] all = delete(ordered, post);
+        ordered = all == null ? EMPTY : all;
+        for (String categoryName : categoriesOf(post)) {
+            postingLists.computeIfPresent(categoryName, (key, current) -> delete(current, post));
+        }
+    }
+
+    private Post[] insert(Post[] current, Post post) {
+        int index = Arrays.binarySearch(current, post, comparator);
+        int insertAt = index >= 0 ? index : -index - 1;
+        Post[] updated = new Post[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = post;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        return updated;
+    }
+
+    /**
+     * Removes the post from the array, returning null if nothing remains.
+     */
+    @Nullable
+    private Post[] delete(Post[] current, Post post) {
+        int index = Arrays.binarySearch(current, post, comparator);
+        if (index < 0) {
+            return current;
+        }
+        if (current.length == 1) {
+            return null;
+        }
+        Post[] updated = new Post[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        return updated;
+    }
+
+    private static Collection<String> categoriesOf(Post post) {
+        List<String> categories = post.getSpec().getCategories();
+        if (categories == null || categories.isEmpty()) {
+            return List.of();
+        }
+        // a post may list the same category twice
+        return new HashSet<>(categories);
+    }
+
+    private static boolean isOlder(Post incoming, Post existing) {
+        Long incomingVersion = incoming.getMetadata().getVersion();
+        Long existingVersion = existing.getMetadata().getVersion();
+        if (incomingVersion == null || existingVersion == null) {
+            return false;
+        }
+        return incomingVersion < existingVersion;
+    }
+
+    /**
+     * Gets told about posts entering or leaving the index.
+     */
+    interface Listener {
+        void onLinked(Post post);
+
+        void onUnlinked(Post post);
+    }
+
+    /**
+     * The posts adjacent to a post, either of which may be null.
+     */
+    public record Neighbours(@Nullable Post previous, @Nullable Post next) {
+    }
+}
@@ -0,0 +1,106 @@
+package run.halo.links.finders.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.Counter;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.metrics.MeterUtils;
+import run.halo.links.WeightedLruCache;
+import run.halo.links.vo.MyStatsVo;
+
+/**
+ * Resolves {@link MyStatsVo} for a whole page of posts at once.
+ * <p>
+ * Counters are fetched with bounded parallelism and cached for a short time, so list pages
+ * do not issue one sequential {@link Counter} fetch per post.
+ *
+ * @since 2.0.0
+ */
+@Component
+public class PostStatsLoader {
+    static final int FETCH_CONCURRENCY = 8;
+
+    static final Duration CACHE_TTL = Duration.ofSeconds(10);
+
+    static final int MAX_CACHED_COUNTERS = 10_000;
+
+    private final ReactiveExtensionClient client;
+
+    /**
+     * Cached stats by post name, each weighing one, so at most {@link #MAX_CACHED_COUNTERS}
+     * stats are kept and the least recently read are dropped first.
+     */
+    private final WeightedLruCache<String, CachedStats> cache =
+        new WeightedLruCache<>(MAX_CACHED_COUNTERS, cached -> 1);
+
+    public PostStatsLoader(ReactiveExtensionClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Loads stats for the given posts.
+     *
+     * @param postNames post names
+     * @return stats keyed by post name, with {@link MyStatsVo#empty()} for posts without counter
+     */
+    public Mono<Map<String, MyStatsVo>> load(Collection<String> postNames) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Map<String, MyStatsVo> result = new HashMap<>(postNames.size() * 4 / 3 + 1);
+            List<String> misses = new ArrayList<>();
+            for (String postName : postNames) {
+                CachedStats cached = cache.get(postName);
+                if (cached != null && cached.expiresAt - now > 0) {
+                    result.put(postName, cached.stats);
+                } else {
+                    misses.add(postName);
+                }
+            }
+            if (misses.isEmpty()) {
+                return Mono.just(result);
+            }
+            return Flux.fromIterable(misses)
+                .flatMap(postName -> fetch(postName)
+                    .doOnNext(stats -> cache.put(postName,
+                        new CachedStats(stats, System.nanoTime() + CACHE_TTL.toNanos())))
+                    .map(stats -> Map.entry(postName, stats)), FETCH_CONCURRENCY)
+                .doOnNext(entry -> result.put(entry.getKey(), entry.getValue()))
+                .then(Mono.fromSupplier(() -> result));
+        });
+    }
+
+    /**
+     * Drops the cached stats of a post, e.g. after its counter changed.
+     *
+     * @param postName post name
+     */
+    public void evict(String postName) {
+        cache.remove(postName);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private Mono<MyStatsVo> fetch(String postName) {
+        return client.fetch(Counter.class, MeterUtils.nameOf(Post.class, postName))
+            .map(counter -> MyStatsVo.builder()
+                .visit(counter.getVisit())
+                .upvote(counter.getUpvote())
+                .comment(counter.getApprovedComment())
+                .build()
+            )
+            .defaultIfEmpty(MyStatsVo.empty());
+    }
+
+    private record CachedStats(MyStatsVo stats, long expiresAt) {
+    }
+}
@@ -0,0 +1,196 @@
+package run.halo.links.finders.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * <p>Memoizes finder calls for the duration of one request.</p>
+ * <p>{@link RenderMemoWebFilter} opens a memo per page request and keeps it as an attribute of
+ * the exchange. Finder calls with the same key share one cached result, so a page asking for
+ * the category tree in its header, sidebar and body only builds it once.</p>
+ * <p>Templates resolve finder results by blocking in a new subscription that does not carry
+ * the Reactor {@link Context} of the request, so the memo is also bound to the thread that
+ * renders the template, from the start of the render to its end, see
+ * {@link #bindWhileRendering(Publisher)}. Finder calls look for a memo bound to the calling
+ * thread first and then for one in the context. Without either, calls are passed through. A
+ * memo is closed when its request completes, after which it no longer memoizes anything, so
+ * results never leak into other requests.</p>
+ *
+ * @since 2.0.0
+ */
+public final class RenderMemo {
+    /**
+     * Upper bound of memoized calls per request, further calls are passed through.
+     */
+    static final int MAX_ENTRIES = 256;
+
+    private static final String ATTRIBUTE = RenderMemo.class.getName();
+
+    private static final Class<RenderMemo> CONTEXT_KEY = RenderMemo.class;
+
+    private static final ThreadLocal<RenderMemo> BOUND = new ThreadLocal<>();
+
+    private final Map<List<Object>, Publisher<?>> results = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    private RenderMemo() {
+    }
+
+    /**
+     * Opens a new memo for the given exchange.
+     */
+    static RenderMemo open(ServerWebExchange exchange) {
+        RenderMemo memo = new RenderMemo();
+        exchange.getAttributes().put(ATTRIBUTE, memo);
+        return memo;
+    }
+
+    /**
+     * Puts this memo into the given context.
+     */
+    Context attach(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Binds this memo to the thread that subscribes to the given response body, while it
+     * subscribes.
+     * <p>
+     * A template is rendered when the response body is subscribed to, so the memo is bound
+     * for the whole render, including finder calls before the head of the page, and unbound
+     * on the same thread right after. Whatever another request left bound to the thread is
+     * replaced rather than reused.
+     *
+     * @param body the rendered response body
+     * @return the body, binding this memo during its subscription
+     */
+    <T> Publisher<T> bindWhileRendering(Publisher<T> body) {
+        return subscriber -> {
+            if (closed) {
+                BOUND.remove();
+            } else {
+                BOUND.set(this);
+            }
+            try {
+                body.subscribe(subscriber);
+            } finally {
+                BOUND.remove();
+            }
+        };
+    }
+
+    /**
+     * Stops memoizing and releases the memoized results.
+     */
+    void close() {
+        closed = true;
+        results.clear();
+        if (BOUND.get() == this) {
+            BOUND.remove();
+        }
+    }
+
+    /**
+     * Gets the number of calls served from the memo.
+     */
+    int hits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of calls that were memoized for later calls.
+     */
+    int misses() {
+        return misses.get();
+    }
+
+    /**
+     * Shares the result of the source with all calls of the same key in the current request.
+     *
+     * @param source the finder call
+     * @param key finder name, method name and arguments of the call
+     * @return the memoized result, or the source if there is no memo for the current request
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Mono<T> memoize(Mono<T> source, Object... key) {
+        List<Object> memoKey = Arrays.asList(key);
+        RenderMemo bound = bound();
+        if (bound != null) {
+            return (Mono<T>) bound.results(memoKey, source::cache);
+        }
+        return Mono.deferContextual(context -> {
+            RenderMemo memo = memoOf(context);
+            return memo == null ? source : (Mono<T>) memo.results(memoKey, source::cache);
+        });
+    }
+
+    /**
+     * Shares the elements of the source with all calls of the same key in the current request.
+     *
+     * @param source the finder call
+     * @param key finder name, method name and arguments of the call
+     * @return the memoized elements, or the source if there is no memo for the current request
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Flux<T> memoize(Flux<T> source, Object... key) {
+        List<Object> memoKey = Arrays.asList(key);
+        RenderMemo bound = bound();
+        if (bound != null) {
+            return (Flux<T>) bound.results(memoKey, source::cache);
+        }
+        return Flux.deferContextual(context -> {
+            RenderMemo memo = memoOf(context);
+            return memo == null ? source : (Flux<T>) memo.results(memoKey, source::cache);
+        });
+    }
+
+    private Publisher<?> results(List<Object> key, Supplier<Publisher<?>> loader) {
+        if (closed) {
+            return loader.get();
+        }
+        Publisher<?> cached = results.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        if (results.size() >= MAX_ENTRIES) {
+            return loader.get();
+        }
+        return results.computeIfAbsent(key, k -> {
+            misses.incrementAndGet();
+            return loader.get();
+        });
+    }
+
+    @Nullable
+    private static RenderMemo bound() {
+        RenderMemo memo = BOUND.get();
+        if (memo != null && memo.closed) {
+            BOUND.remove();
+            return null;
+        }
+        return memo;
+    }
+
+    @Nullable
+    private static RenderMemo memoOf(ContextView context) {
+        RenderMemo memo = context.getOrDefault(CONTEXT_KEY, null);
+        return memo == null || memo.closed ? null : memo;
+    }
+}
@@ -0,0 +1,83 @@
+package run.halo.links.finders.impl;
+
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.MediaTypeServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import run.halo.app.security.AdditionalWebFilter;
+
+import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
+
+/**
+ * Gives every page request its own {@link RenderMemo}, bound to the thread rendering the page
+ * and closed once the request completes.
+ *
+ * @since 2.0.0
+ */
+@Slf4j
+@Component
+public class RenderMemoWebFilter implements AdditionalWebFilter {
+    /**
+     * Matches requests for pages rendered from theme templates, i.e. HTML requested by GET
+     * outside the API, console and static asset routes.
+     */
+    private final ServerWebExchangeMatcher pageMatcher;
+
+    public RenderMemoWebFilter() {
+        MediaTypeServerWebExchangeMatcher html =
+            new MediaTypeServerWebExchangeMatcher(MediaType.TEXT_HTML);
+        // assets are requested with */*, which must not count as asking for a page
+        html.setIgnoredMediaTypes(Set.of(MediaType.ALL));
+        this.pageMatcher = new AndServerWebExchangeMatcher(
+            pathMatchers(HttpMethod.GET, "/**"),
+            html,
+            new NegatedServerWebExchangeMatcher(pathMatchers("/api/**", "/apis/**",
+                "/actuator/**", "/console/**", "/uc/**", "/themes/**", "/plugins/**",
+                "/upload/**", "/assets/**")));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return pageMatcher.matches(exchange)
+            .flatMap(result -> result.isMatch() ? filterPage(exchange, chain)
+                : chain.filter(exchange));
+    }
+
+    private Mono<Void> filterPage(ServerWebExchange exchange, WebFilterChain chain) {
+        RenderMemo memo = RenderMemo.open(exchange);
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(memo.bindWhileRendering(body));
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build())
+            .contextWrite(memo::attach)
+            .doFinally(signal -> close(exchange, memo));
+    }
+
+    private static void close(ServerWebExchange exchange, RenderMemo memo) {
+        if (log.isDebugEnabled() && memo.misses() > 0) {
+            log.debug("Render memo of [{}] served {} finder calls for {} memoized.",
+                exchange.getRequest().getPath(), memo.hits(), memo.misses());
+        }
+        memo.close();
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,69 @@
+package run.halo.links.finders.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects a page of items in sorted order without sorting all of them.
+ * <p>
+ * When the requested window ends early compared with the number of items, the first items up
+ * to the end of the window are kept in a bounded max-heap, which costs O(n log k) instead of
+ * O(n log n) and only allocates the heap. Larger windows fall back to a full sort.
+ * <p>
+ * Post pages do not need it: {@link PostIndex} keeps all visible posts in an array sorted by
+ * {@link PostFinderImpl#defaultComparator()}, so a page is a slice of that array. It is used
+ * where the matches are not kept in sort order, such as the prefix matches of
+ * {@link CategoryPrefixIndex}.
+ *
+ * @since 2.0.0
+ */
+final class TopKSelector {
+    /**
+     * Use the heap only when the window end is at most 1/RATIO of the items.
+     */
+    static final int RATIO = 4;
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Selects the items at sorted positions [from, to).
+     *
+     * @param items items in any order
+     * @param comparator sort order
+     * @param from start position, inclusive
+     * @param to end position, exclusive
+     * @return the selected items in sorted order
+     */
+    static <T> List<T> select(Collection<T> items, Comparator<? super T> comparator, int from,
+        int to) {
+        int end = Math.min(to, items.size());
+        if (from >= end) {
+            return List.of();
+        }
+        if ((long) end * RATIO > items.size()) {
+            List<T> sorted = new ArrayList<>(items);
+            sorted.sort(comparator);
+            return List.copyOf(sorted.subList(from, end));
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(end + 1, comparator.reversed());
+        for (T item : items) {
+            if (heap.size() < end) {
+                heap.add(item);
+            } else if (comparator.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        T[] top = (T[]) new Object[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return List.copyOf(Arrays.asList(top).subList(from, top.length));
+    }
+}
@@ -0,0 +1,107 @@
+package run.halo.links.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.extension.MetadataOperator;
+
+/**
+ * <p>An immutable node of a {@link CategoryTreeSnapshot}.</p>
+ * <p>It has the properties of {@link CategoryTreeVo} except the descendant-inclusive
+ * {@code totalPostCount}, which depends on the posts rather than the tree and is only set on the
+ * copies made by {@link #toTreeVo(ToIntFunction)}. Its children can not be replaced and nodes
+ * are therefore shared by all renders reading the same snapshot. Metadata, spec and status are
+ * shared with the indexed category and must not be modified.</p>
+ *
+ * @since 2.0.0
+ */
+@Value
+public class CategoryTreeNode implements MyVisualizableTreeNode<CategoryTreeNode> {
+
+    MetadataOperator metadata;
+
+    Category.CategorySpec spec;
+
+    Category.CategoryStatus status;
+
+    String parentName;
+
+    Integer postCount;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    List<CategoryTreeNode> children;
+
+    /**
+     * Creates a node from a category and its already built children.
+     *
+     * @param category category value object
+     * @param parentName parent category name, or null for a root
+     * @param children child nodes, which must not be modified afterwards
+     */
+    public CategoryTreeNode(CategoryVo category, String parentName,
+        List<CategoryTreeNode> children) {
+        this.metadata = category.getMetadata();
+        this.spec = category.getSpec();
+        this.status = category.getStatus();
+        this.parentName = parentName;
+        this.postCount = category.getPostCount() == null ? 0 : category.getPostCount();
+        this.children = List.copyOf(children);
+    }
+
+    public String getName() {
+        return metadata.getName();
+    }
+
+    /**
+     * Gets the number of direct children.
+     */
+    public int getChildCount() {
+        return children.size();
+    }
+
+    @Override
+    public String nodeText() {
+        return String.format("%s (%s)", getSpec().getDisplayName(), getPostCount());
+    }
+
+    /**
+     * Copies this subtree into mutable {@link CategoryTreeVo}s.
+     *
+     * @return a new tree owned by the caller
+     */
+    public CategoryTreeVo toTreeVo() {
+        return toTreeVo(null);
+    }
+
+    /**
+     * Copies this subtree into mutable {@link CategoryTreeVo}s with descendant-inclusive post
+     * counts.
+     *
+     * @param totalPostCounts total post count by category name, or null to leave it unset
+     * @return a new tree owned by the caller
+     */
+    public CategoryTreeVo toTreeVo(@Nullable ToIntFunction<String> totalPostCounts) {
+        CategoryTreeVo node = CategoryTreeVo.builder()
+            .metadata(metadata)
+            .spec(spec)
+            .status(status)
+            .parentName(parentName)
+            .postCount(postCount)
+            .totalPostCount(totalPostCounts == null ? null
+                : totalPostCounts.applyAsInt(getName()))
+            .childCount(children.size())
+            .build();
+        List<CategoryTreeVo> copies = new ArrayList<>(children.size());
+        for (CategoryTreeNode child : children) {
+            copies.add(child.toTreeVo(totalPostCounts));
+        }
+        node.setChildren(copies);
+        return node;
+    }
+}
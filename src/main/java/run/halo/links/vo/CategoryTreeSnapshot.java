@@ -0,0 +1,57 @@
+package run.halo.links.vo;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/**
+ * <p>An immutable category tree as of one version of the category index.</p>
+ * <p>A new snapshot is built when categories have changed and replaces the previous one as a
+ * whole, so any number of renders can read a snapshot concurrently without locks or
+ * copies.</p>
+ *
+ * @since 2.0.0
+ */
+public final class CategoryTreeSnapshot {
+    private final long version;
+
+    private final List<CategoryTreeNode> roots;
+
+    private final Map<String, CategoryTreeNode> nodes;
+
+    public CategoryTreeSnapshot(long version, List<CategoryTreeNode> roots,
+        Map<String, CategoryTreeNode> nodes) {
+        this.version = version;
+        this.roots = List.copyOf(roots);
+        this.nodes = Map.copyOf(nodes);
+    }
+
+    /**
+     * Gets the version of the category index this snapshot was built from.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the root categories, sorted like the children of each node.
+     */
+    public List<CategoryTreeNode> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Gets the node of a category.
+     *
+     * @param name category name
+     * @return the node, or null if the category is not in the tree
+     */
+    @Nullable
+    public CategoryTreeNode get(String name) {
+        return name == null ? null : nodes.get(name);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
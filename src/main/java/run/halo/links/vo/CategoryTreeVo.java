@@ -40,6 +40,17 @@ public class CategoryTreeVo
 
     private Integer postCount;
 
+    /**
+     * Number of visible posts in this category and all of its subcategories, each post
+     * counted once.
+     */
+    private Integer totalPostCount;
+
+    /**
+     * Number of direct subcategories, also when the children were left out by a depth limit.
+     */
+    private Integer childCount;
+
     /**
      * Convert {@link CategoryVo} to {@link CategoryTreeVo}.
      *
@@ -0,0 +1,31 @@
+package run.halo.links.vo;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A page of items fetched by cursor, without a total count.
+ *
+ * @param <T> item type
+ * @since 2.0.0
+ */
+@Value
+@Builder
+public class MyCursorListResult<T> {
+
+    List<T> items;
+
+    /**
+     * Cursor to pass in to fetch the next page, null if there is no next page.
+     */
+    String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public static <T> MyCursorListResult<T> empty() {
+        return MyCursorListResult.<T>builder().items(List.of()).build();
+    }
+}
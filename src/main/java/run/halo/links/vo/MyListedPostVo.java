@@ -11,6 +11,7 @@ import org.springframework.util.Assert;
 import run.halo.app.core.extension.content.Post;
 import run.halo.app.extension.AbstractExtension;
 import run.halo.app.extension.GVK;
+import run.halo.app.extension.Metadata;
 import run.halo.app.extension.MetadataOperator;
 import java.util.List;
 
@@ -67,4 +68,41 @@ public class MyListedPostVo extends AbstractExtension implements MyExtensionVoOp
             .build();
     }
 
+    /**
+     * Convert {@link Post} to a {@link MyListedPostVo} that only keeps the fields a listing
+     * shows, so a page does not carry every annotation, label and spec field of its posts.
+     * <p>
+     * Metadata keeps the name, spec keeps title, slug, cover and publish time, and status
+     * keeps permalink and excerpt. Stats are filled in by the finder.
+     *
+     * @param post post extension
+     * @return slim post value object
+     */
+    public static MyListedPostVo slim(Post post) {
+        Assert.notNull(post, "The post must not be null.");
+        Metadata metadata = new Metadata();
+        metadata.setName(post.getMetadata().getName());
+
+        Post.PostSpec spec = new Post.PostSpec();
+        spec.setTitle(post.getSpec().getTitle());
+        spec.setSlug(post.getSpec().getSlug());
+        spec.setCover(post.getSpec().getCover());
+        spec.setPublishTime(post.getSpec().getPublishTime());
+
+        Post.PostStatus status = new Post.PostStatus();
+        Post.PostStatus postStatus = post.getStatus();
+        if (postStatus != null) {
+            status.setPermalink(postStatus.getPermalink());
+            status.setExcerpt(postStatus.getExcerpt());
+        }
+        return MyListedPostVo.builder()
+            .metadata(metadata)
+            .spec(spec)
+            .status(status)
+            .categories(List.of())
+            .tags(List.of())
+            .contributors(List.of())
+            .build();
+    }
+
 }
@@ -50,7 +50,6 @@ public class MyPostVo extends MyListedPostVo {
         //     .content(new ContentVo(null, null))
         //     .build();
 
-        System.out.println("post.getMetadata()post.getMetadata()post.getMetadata() = " + post.getMetadata());
         MyPostVo myPostVo = new MyPostVo();
         myPostVo.setMetadata(post.getMetadata());
         myPostVo.setMetadata2(post.getMetadata());
@@ -1,6 +1,7 @@
 package run.halo.links.vo;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -14,23 +15,30 @@ public interface MyVisualizableTreeNode<T extends MyVisualizableTreeNode<T>> {
     /**
      * Visualize tree node.
      */
+    @SuppressWarnings("unchecked")
     default void print(StringBuilder buffer, String prefix, String childrenPrefix) {
-        buffer.append(prefix);
-        buffer.append(nodeText());
-        buffer.append('\n');
-        if (getChildren() == null) {
-            return;
-        }
-        for (Iterator<T> it = getChildren().iterator(); it.hasNext(); ) {
-            T next = it.next();
-            if (it.hasNext()) {
-                next.print(buffer, childrenPrefix + "├── ", childrenPrefix + "│   ");
-            } else {
-                next.print(buffer, childrenPrefix + "└── ", childrenPrefix + "    ");
-            }
+        try {
+            TreeRenderer.render((T) this, buffer, prefix, childrenPrefix,
+                TreeRenderer.UNLIMITED);
+        } catch (IOException e) {
+            // a StringBuilder does not throw
+            throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Visualize tree node into any {@link Appendable}, down to the given depth.
+     *
+     * @param out where to append the text
+     * @param maxDepth number of levels to render below this node, or
+     * {@link TreeRenderer#UNLIMITED}
+     * @throws IOException if appending fails
+     */
+    @SuppressWarnings("unchecked")
+    default void render(Appendable out, int maxDepth) throws IOException {
+        TreeRenderer.render((T) this, out, "", "", maxDepth);
+    }
+
     String nodeText();
 
     List<T> getChildren();
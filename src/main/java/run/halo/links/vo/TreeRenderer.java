@@ -0,0 +1,73 @@
+package run.halo.links.vo;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>Renders {@link MyVisualizableTreeNode}s as text trees into an {@link Appendable}.</p>
+ * <p>A single prefix buffer is extended when descending and truncated again when returning,
+ * so rendering allocates no prefix strings per node.</p>
+ *
+ * @since 2.0.0
+ */
+public final class TreeRenderer {
+    /**
+     * Max depth that renders the whole tree.
+     */
+    public static final int UNLIMITED = -1;
+
+    private TreeRenderer() {
+    }
+
+    /**
+     * Renders a node and its descendants.
+     *
+     * @param node the node to render
+     * @param out where to append the text
+     * @param prefix text in front of the node itself
+     * @param childrenPrefix text in front of the connectors of its descendants
+     * @param maxDepth number of levels to render below the node, or {@link #UNLIMITED}
+     * @throws IOException if appending fails
+     */
+    public static <T extends MyVisualizableTreeNode<T>> void render(T node, Appendable out,
+        CharSequence prefix, CharSequence childrenPrefix, int maxDepth) throws IOException {
+        out.append(prefix).append(node.nodeText()).append('\n');
+        renderChildren(node, out, new StringBuilder(childrenPrefix), 1, maxDepth);
+    }
+
+    /**
+     * Renders trees one after another, e.g. all root categories.
+     *
+     * @param roots the nodes to render
+     * @param out where to append the text
+     * @param maxDepth number of levels to render below each root, or {@link #UNLIMITED}
+     * @throws IOException if appending fails
+     */
+    public static <T extends MyVisualizableTreeNode<T>> void render(Iterable<T> roots,
+        Appendable out, int maxDepth) throws IOException {
+        StringBuilder prefix = new StringBuilder();
+        for (T root : roots) {
+            out.append(root.nodeText()).append('\n');
+            renderChildren(root, out, prefix, 1, maxDepth);
+        }
+    }
+
+    private static <T extends MyVisualizableTreeNode<T>> void renderChildren(T node,
+        Appendable out, StringBuilder prefix, int depth, int maxDepth) throws IOException {
+        List<T> children = node.getChildren();
+        if (children == null || (maxDepth != UNLIMITED && depth > maxDepth)) {
+            return;
+        }
+        int length = prefix.length();
+        for (Iterator<T> it = children.iterator(); it.hasNext(); ) {
+            T child = it.next();
+            boolean last = !it.hasNext();
+            out.append(prefix).append(last ? "└── " : "├── ")
+                .append(child.nodeText()).append('\n');
+            prefix.append(last ? "    " : "│   ");
+            renderChildren(child, out, prefix, depth + 1, maxDepth);
+            prefix.setLength(length);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package run.halo.links;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.patch.Patch;
+import com.github.difflib.patch.PatchFailedException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link PatchUtils}, comparing the offset based patching with joining the lines
+ * patched by {@link Patch#applyTo(java.util.List)}.
+ *
+ * @since 2.0.0
+ */
+class PatchUtilsTest {
+
+    @Test
+    void applyPatchWithTrailingNewline() throws PatchFailedException {
+        assertSameAsAppliedLines("a\nb\nc\n", "a\nB\nc\n");
+        assertSameAsAppliedLines("a\nb\nc\n", "a\nb\nc");
+        assertSameAsAppliedLines("a\nb\nc", "a\nb\nc\n\n");
+    }
+
+    @Test
+    void applyPatchWithEmptyInput() throws PatchFailedException {
+        assertSameAsAppliedLines("", "a\nb");
+        assertSameAsAppliedLines("a\nb", "");
+        assertSameAsAppliedLines("", "");
+    }
+
+    @Test
+    void applyPatchWithBlankInput() throws PatchFailedException {
+        assertSameAsAppliedLines("  \n\t", "a\nb");
+        assertSameAsAppliedLines("a\nb", " \n ");
+        assertSameAsAppliedLines("\n\n", "\n\n");
+    }
+
+    @Test
+    void applyPatchWithInsertsAndDeletesAtTheEdges() throws PatchFailedException {
+        assertSameAsAppliedLines("b\nc\nd", "a\nb\nc\nd");
+        assertSameAsAppliedLines("a\nb\nc", "a\nb\nc\nd");
+        assertSameAsAppliedLines("a\nb\nc\nd", "b\nc\nd");
+        assertSameAsAppliedLines("a\nb\nc\nd", "a\nb\nc");
+        assertSameAsAppliedLines("a\nb\nc\nd", "x\nb\nc\ny");
+    }
+
+    @Test
+    void applyPatchWithCrlf() throws PatchFailedException {
+        assertSameAsAppliedLines("a\r\nb\r\nc\r\n", "a\r\nB\r\nc\r\n");
+        assertSameAsAppliedLines("a\r\nb\r\nc", "a\nb\r\nc\r\nd");
+    }
+
+    @Test
+    void applyPatchWithMultipleDeltas() throws PatchFailedException {
+        String base = "1\n2\n3\n4\n5\n6\n7\n8\n9\n10";
+        assertSameAsAppliedLines(base, "0\n1\n3\n4\nfive\n6\n7\n7.5\n8\n9");
+        assertSameAsAppliedLines(base, "2\n4\n6\n8\n10");
+    }
+
+    @Test
+    void applyPatchThatDoesNotMatchFailsLikeAppliedLines() {
+        String json = PatchUtils.diffToJsonPatch("a\nb\nc", "a\nB\nc");
+        String otherBase = "a\nx\nc";
+
+        assertThatThrownBy(() -> PatchUtils.create(json).applyTo(PatchUtils.breakLine(otherBase)))
+            .isInstanceOf(PatchFailedException.class);
+        assertThatThrownBy(() -> PatchUtils.applyPatch(otherBase, json))
+            .isInstanceOf(RuntimeException.class)
+            .hasCauseInstanceOf(PatchFailedException.class);
+    }
+
+    @Test
+    void applyPatchOutOfRangeFailsLikeAppliedLines() {
+        String json = PatchUtils.diffToJsonPatch("a\nb\nc\nd", "a\nb\nc");
+        String shorterBase = "a\nb";
+
+        assertThatThrownBy(
+            () -> PatchUtils.create(json).applyTo(PatchUtils.breakLine(shorterBase)))
+            .isInstanceOf(PatchFailedException.class);
+        assertThatThrownBy(() -> PatchUtils.applyPatch(shorterBase, json))
+            .isInstanceOf(RuntimeException.class)
+            .hasCauseInstanceOf(PatchFailedException.class);
+    }
+
+    private static void assertSameAsAppliedLines(String base, String revised)
+        throws PatchFailedException {
+        String json = PatchUtils.diffToJsonPatch(base, revised);
+        String expected =
+            String.join("\n", PatchUtils.create(json).applyTo(PatchUtils.breakLine(base)));
+
+        assertThat(PatchUtils.applyPatch(base, json)).isEqualTo(expected);
+        assertThat(PatchUtils.applyPatch(TextLines.of(base),
+            PatchUtils.sortedDeltas(PatchUtils.create(json)))).isEqualTo(expected);
+        // twice, so the second call is served from the caches
+        assertThat(PatchUtils.applyPatch("base", base, "patch", json)).isEqualTo(expected);
+        assertThat(PatchUtils.applyPatch("base", base, "patch", json)).isEqualTo(expected);
+        PatchUtils.clearCaches();
+    }
+}